@@ -0,0 +1,57 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The elements benchmarks operate on: a fixed pseudo-random sequence of
+ * integers, stored both as an array and as a list
+ * 
+ * @author flbulgarelli
+ */
+@State(Scope.Benchmark)
+public class BenchmarkData {
+
+  /** The number of elements */
+  @Param({ "1000", "100000" })
+  public int size;
+
+  /** The elements, as an array */
+  public Integer[] array;
+
+  /** The elements, as a list */
+  public List<Integer> list;
+
+  /***/
+  @Setup
+  public void setup() {
+    Random random = new Random(42);
+    array = new Integer[size];
+    list = new ArrayList<Integer>(size);
+    for (int i = 0; i < size; i++) {
+      array[i] = random.nextInt(size);
+      list.add(array[i]);
+    }
+  }
+
+}
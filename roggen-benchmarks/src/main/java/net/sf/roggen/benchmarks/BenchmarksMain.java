@@ -0,0 +1,55 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks selected by the given JMH command line options. Unless
+ * other result options are given, results are written in JSON format to
+ * <code>jmh-result.json</code>, so that they can be compared across commits.
+ * 
+ * @author flbulgarelli
+ */
+public final class BenchmarksMain {
+
+  private BenchmarksMain() {}
+
+  /**
+   * Runs the benchmarks
+   * 
+   * @param args
+   *          JMH command line options
+   * @throws Exception
+   */
+  public static void main(String[] args) throws Exception {
+    CommandLineOptions options = new CommandLineOptions(args);
+    if (options.shouldHelp() || options.shouldList()) {
+      org.openjdk.jmh.Main.main(args);
+      return;
+    }
+    ChainedOptionsBuilder builder = new OptionsBuilder().parent(options);
+    if (!options.getResultFormat().hasValue())
+      builder.resultFormat(ResultFormatType.JSON);
+    if (!options.getResult().hasValue())
+      builder.result("jmh-result.json");
+    new Runner(builder.build()).run();
+  }
+
+}
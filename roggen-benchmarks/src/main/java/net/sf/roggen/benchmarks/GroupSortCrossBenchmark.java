@@ -0,0 +1,107 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.benchmarks;
+
+import static net.sf.roggen.benchmarks.Operations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import net.sf.roggen.collections.stream.Stream;
+import net.sf.roggen.collections.stream.Streams;
+import net.sf.roggen.defs.tuple.Tuple2;
+import net.sf.roggen.lang.tuple.Tuples;
+import net.sf.roggen.reductions.Reductions;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of {@link Stream#groupOn(net.sf.roggen.defs.Applicable, net.sf.roggen.defs.reduction.Reduction)},
+ * {@link Stream#sort()} and {@link Stream#cross(Stream)}, compared against
+ * hand-written loops
+ * 
+ * @author flbulgarelli
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GroupSortCrossBenchmark {
+
+  /** The number of elements of each side of cartesian products */
+  private static final int CROSS_SIZE = 300;
+
+  /***/
+  @Benchmark
+  public Map<Integer, Integer> groupOn(BenchmarkData data) {
+    return Streams.from(data.list).groupOn(MOD_100, Reductions.<Integer> count());
+  }
+
+  /***/
+  @Benchmark
+  public List<Integer> sort(BenchmarkData data) {
+    return Streams.from(data.list).sort().toList();
+  }
+
+  /***/
+  @Benchmark
+  public void cross(BenchmarkData data, Blackhole blackhole) {
+    Stream<Integer> side = Streams.from(data.list).take(CROSS_SIZE);
+    for (Tuple2<Integer, Integer> pair : side.cross(side))
+      blackhole.consume(pair);
+  }
+
+  /***/
+  @Benchmark
+  public Map<Integer, Integer> loopGroupOn(BenchmarkData data) {
+    Map<Integer, Integer> groups = new LinkedHashMap<Integer, Integer>();
+    for (Integer element : data.list) {
+      Integer key = mod100(element);
+      Integer count = groups.get(key);
+      groups.put(key, count == null ? 1 : count + 1);
+    }
+    return groups;
+  }
+
+  /***/
+  @Benchmark
+  public List<Integer> loopSort(BenchmarkData data) {
+    List<Integer> result = new ArrayList<Integer>(data.list);
+    Collections.sort(result);
+    return result;
+  }
+
+  /***/
+  @Benchmark
+  public void loopCross(BenchmarkData data, Blackhole blackhole) {
+    List<Integer> side = data.list.subList(0, Math.min(CROSS_SIZE, data.list.size()));
+    for (Integer first : side)
+      for (Integer second : side)
+        blackhole.consume(Tuples._(first, second));
+  }
+
+}
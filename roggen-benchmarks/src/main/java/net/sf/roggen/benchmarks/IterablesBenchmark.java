@@ -0,0 +1,109 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.benchmarks;
+
+import static net.sf.roggen.benchmarks.Operations.*;
+import static net.sf.roggen.numbers.NumberTypes.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import net.sf.roggen.collections.iterable.Iterables;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the {@link Iterables} class methods, compared against
+ * hand-written loops
+ * 
+ * @author flbulgarelli
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class IterablesBenchmark {
+
+  /***/
+  @Benchmark
+  public List<Integer> map(BenchmarkData data) {
+    return Iterables.map(data.list, TRIPLE);
+  }
+
+  /***/
+  @Benchmark
+  public List<Integer> filter(BenchmarkData data) {
+    return Iterables.filter(data.list, EVEN);
+  }
+
+  /***/
+  @Benchmark
+  public Integer sum(BenchmarkData data) {
+    return Iterables.sum(data.list, integer());
+  }
+
+  /***/
+  @Benchmark
+  public int countOf(BenchmarkData data) {
+    return Iterables.countOf(data.list, EVEN);
+  }
+
+  /***/
+  @Benchmark
+  public List<Integer> loopMap(BenchmarkData data) {
+    List<Integer> result = new ArrayList<Integer>(data.list.size());
+    for (Integer element : data.list)
+      result.add(triple(element));
+    return result;
+  }
+
+  /***/
+  @Benchmark
+  public List<Integer> loopFilter(BenchmarkData data) {
+    List<Integer> result = new ArrayList<Integer>();
+    for (Integer element : data.list)
+      if (even(element))
+        result.add(element);
+    return result;
+  }
+
+  /***/
+  @Benchmark
+  public int loopSum(BenchmarkData data) {
+    int sum = 0;
+    for (Integer element : data.list)
+      sum += element;
+    return sum;
+  }
+
+  /***/
+  @Benchmark
+  public int loopCountOf(BenchmarkData data) {
+    int count = 0;
+    for (Integer element : data.list)
+      if (even(element))
+        count++;
+    return count;
+  }
+
+}
@@ -0,0 +1,65 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.benchmarks;
+
+import net.sf.roggen.defs.function.Function;
+import net.sf.roggen.defs.predicate.Predicate;
+import net.sf.roggen.lang.function.AbstractFunction;
+import net.sf.roggen.lang.predicate.AbstractPredicate;
+
+/**
+ * Functions and predicates shared by benchmarks, and their hand-written
+ * equivalents
+ * 
+ * @author flbulgarelli
+ */
+final class Operations {
+
+  /** Multiplies an integer by 3 */
+  static final Function<Integer, Integer> TRIPLE = new AbstractFunction<Integer, Integer>() {
+    public Integer apply(Integer arg) {
+      return triple(arg);
+    }
+  };
+
+  /** Answers if an integer is even */
+  static final Predicate<Integer> EVEN = new AbstractPredicate<Integer>() {
+    public boolean eval(Integer argument) {
+      return even(argument);
+    }
+  };
+
+  /** Answers the remainder of dividing an integer by 100 */
+  static final Function<Integer, Integer> MOD_100 = new AbstractFunction<Integer, Integer>() {
+    public Integer apply(Integer arg) {
+      return mod100(arg);
+    }
+  };
+
+  private Operations() {}
+
+  static int triple(int value) {
+    return value * 3;
+  }
+
+  static boolean even(int value) {
+    return value % 2 == 0;
+  }
+
+  static int mod100(int value) {
+    return value % 100;
+  }
+
+}
@@ -0,0 +1,159 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.benchmarks;
+
+import static net.sf.roggen.benchmarks.Operations.*;
+import static net.sf.roggen.numbers.NumberTypes.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import net.sf.roggen.collections.stream.Stream;
+import net.sf.roggen.collections.stream.Streams;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the core {@link Stream} operators, over each kind of source,
+ * compared against hand-written loops
+ * 
+ * @author flbulgarelli
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StreamBenchmark {
+
+  /**
+   * The kind of stream benchmarks operate on
+   */
+  @State(Scope.Benchmark)
+  public static class Source {
+
+    /**
+     * <ul>
+     * <li>array: an {@code ArrayStream}</li>
+     * <li>list: a {@code ListStream}</li>
+     * <li>iterator: an {@code IteratorStream}, created on each invocation</li>
+     * <li>memoized: a fully evaluated {@code MemoizedStream}</li>
+     * </ul>
+     */
+    @Param({ "array", "list", "iterator", "memoized" })
+    public String kind;
+
+    private Stream<Integer> memoized;
+
+    /***/
+    @Setup
+    public void setup(BenchmarkData data) {
+      memoized = Streams.from(data.list.iterator()).memoize();
+      memoized.size();
+    }
+
+    Stream<Integer> stream(BenchmarkData data) {
+      if (kind.equals("array"))
+        return Streams.from(data.array);
+      if (kind.equals("list"))
+        return Streams.from(data.list);
+      if (kind.equals("iterator"))
+        return Streams.from(data.list.iterator());
+      return memoized;
+    }
+  }
+
+  /***/
+  @Benchmark
+  public Integer mapFilterSum(Source source, BenchmarkData data) {
+    return source.stream(data).map(TRIPLE).filter(EVEN).sum(integer());
+  }
+
+  /***/
+  @Benchmark
+  public List<Integer> mapToList(Source source, BenchmarkData data) {
+    return source.stream(data).map(TRIPLE).toList();
+  }
+
+  /***/
+  @Benchmark
+  public int countOf(Source source, BenchmarkData data) {
+    return source.stream(data).countOf(EVEN);
+  }
+
+  /***/
+  @Benchmark
+  public Integer maximum(Source source, BenchmarkData data) {
+    return source.stream(data).maximum();
+  }
+
+  /***/
+  @Benchmark
+  public List<Integer> takeDrop(Source source, BenchmarkData data) {
+    return source.stream(data).drop(data.size / 4).take(data.size / 2).toList();
+  }
+
+  /***/
+  @Benchmark
+  public int loopMapFilterSum(BenchmarkData data) {
+    int sum = 0;
+    for (Integer element : data.list) {
+      int tripled = triple(element);
+      if (even(tripled))
+        sum += tripled;
+    }
+    return sum;
+  }
+
+  /***/
+  @Benchmark
+  public List<Integer> loopMapToList(BenchmarkData data) {
+    List<Integer> result = new ArrayList<Integer>(data.list.size());
+    for (Integer element : data.list)
+      result.add(triple(element));
+    return result;
+  }
+
+  /***/
+  @Benchmark
+  public int loopCountOf(BenchmarkData data) {
+    int count = 0;
+    for (Integer element : data.list)
+      if (even(element))
+        count++;
+    return count;
+  }
+
+  /***/
+  @Benchmark
+  public int loopMaximum(BenchmarkData data) {
+    int maximum = Integer.MIN_VALUE;
+    for (Integer element : data.list)
+      maximum = Math.max(maximum, element);
+    return maximum;
+  }
+
+}
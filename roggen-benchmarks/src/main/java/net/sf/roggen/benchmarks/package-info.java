@@ -0,0 +1,32 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+/**
+ * JMH benchmarks of the core {@link net.sf.roggen.collections.stream.Stream}
+ * operators, the {@link net.sf.roggen.collections.iterable.Iterables} class
+ * methods, grouping, sorting and cartesian products, each of them paired with
+ * an equivalent hand-written loop, prefixed with <code>loop</code>.
+ * 
+ * Benchmarks are built and run this way:
+ * 
+ * <pre>
+ * mvn -Pbenchmarks package
+ * java -jar roggen-benchmarks/target/benchmarks.jar [JMH options]
+ * </pre>
+ * 
+ * Results are written to <code>jmh-result.json</code>, which can be compared
+ * with those of another commit.
+ */
+package net.sf.roggen.benchmarks;
+
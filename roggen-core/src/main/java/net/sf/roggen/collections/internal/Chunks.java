@@ -0,0 +1,94 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import net.sf.roggen.lang.SoftException;
+
+/**
+ * Tuning and evaluation of sources that are split into contiguous chunks, in
+ * order to process them in an {@link ExecutorService}
+ * 
+ * @author flbulgarelli
+ * 
+ */
+public final class Chunks {
+
+  /**
+   * The minimum amount of elements of a chunk that is worth processing in its
+   * own task
+   */
+  public static final int MIN_CHUNK_SIZE = 1024;
+  private static final int CHUNKS_PER_PROCESSOR = 4;
+
+  private Chunks() {}
+
+  /**
+   * Answers the maximum number of chunks a source should be split into
+   */
+  public static int maxChunks() {
+    return CHUNKS_PER_PROCESSOR * Runtime.getRuntime().availableProcessors();
+  }
+
+  /**
+   * Answers the size of the chunks a source of the given size should be split
+   * into
+   */
+  public static int chunkSize(int size) {
+    int maxChunks = maxChunks();
+    return Math.max(MIN_CHUNK_SIZE, (size + maxChunks - 1) / maxChunks);
+  }
+
+  /**
+   * Evaluates the given non-empty list of tasks. The first one is evaluated in
+   * the current thread, and the rest of them are submitted to the given
+   * executor, and are cancelled if any of them fails
+   * 
+   * @return the results of the tasks, in order
+   */
+  public static <B> List<B> evalInOrder(List<? extends Callable<B>> tasks, ExecutorService executor) {
+    List<Future<B>> futures = new ArrayList<Future<B>>(tasks.size() - 1);
+    try {
+      for (Callable<B> task : tasks.subList(1, tasks.size()))
+        futures.add(executor.submit(task));
+      List<B> results = new ArrayList<B>(tasks.size());
+      results.add(tasks.get(0).call());
+      for (Future<B> future : futures)
+        results.add(future.get());
+      return results;
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof Error)
+        throw (Error) e.getCause();
+      throw SoftException.soften(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw SoftException.soften(e);
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw SoftException.soften(e);
+    } finally {
+      for (Future<B> future : futures)
+        future.cancel(true);
+    }
+  }
+
+}
@@ -0,0 +1,88 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.internal.iterator;
+
+import java.util.Iterator;
+
+import net.sf.roggen.iterators.UpdateCurrentThriterator;
+import net.sf.roggen.restrictions.check.NonNull;
+
+/**
+ * A thriterator that retrieves the cartesian product of a sequence of
+ * iterables, like an odometer: the last iterable is the fastest-moving digit,
+ * and when it is exhausted, it is restarted and the previous one advances.
+ * 
+ * The first iterable is iterated only once, but the others are iterated once
+ * per combination of the previous ones, so they should be repeatable and
+ * cheap to iterate - for example, memoized streams.
+ * 
+ * @author flbulgarelli
+ * 
+ * @param <A>
+ *          the type of the combinations
+ */
+public abstract class CrossIterator<A> extends UpdateCurrentThriterator<A> {
+
+  private final Iterable<?>[] sources;
+  private final Iterator<?>[] iterators;
+  private final Object[] values;
+  private boolean started;
+
+  /**
+   * Creates a new {@link CrossIterator}
+   * 
+   * @param sources
+   *          the iterables to cross
+   */
+  public CrossIterator(@NonNull Iterable<?>... sources) {
+    this.sources = sources;
+    this.iterators = new Iterator<?>[sources.length];
+    this.values = new Object[sources.length];
+  }
+
+  protected final void updateCurrent() {
+    int digit;
+    if (!started) {
+      started = true;
+      digit = 0;
+    } else {
+      digit = sources.length - 1;
+      while (digit >= 0 && !iterators[digit].hasNext())
+        digit--;
+      if (digit < 0)
+        return;
+      values[digit] = iterators[digit].next();
+      digit++;
+    }
+    for (; digit < sources.length; digit++) {
+      iterators[digit] = sources[digit].iterator();
+      if (!iterators[digit].hasNext())
+        return;
+      values[digit] = iterators[digit].next();
+    }
+    setCurrent(combine(values));
+  }
+
+  /**
+   * Answers the combination of the given values.
+   * 
+   * @param values
+   *          the current value of each iterable. This array is reused, so
+   *          implementors must not keep a reference to it
+   * @return the new combination
+   */
+  protected abstract A combine(Object[] values);
+
+}
@@ -0,0 +1,241 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.internal.iterator;
+
+import java.util.NoSuchElementException;
+
+import net.sf.roggen.defs.Evaluable;
+import net.sf.roggen.defs.Thunk;
+import net.sf.roggen.defs.function.Function;
+import net.sf.roggen.iterators.thriter.AdvanceThriterator;
+import net.sf.roggen.iterators.thriter.Thriter;
+import net.sf.roggen.restrictions.check.NonNull;
+
+/**
+ * A thriterator that applies a sequence of stateless stages - map, filter,
+ * takeWhile, take and drop - to the elements of a source {@link Thriter}, in a
+ * single loop, instead of wrapping a thriterator per stage.
+ *
+ * Elements are only evaluated when a stage needs them, and mappings are applied
+ * as late as possible, so this thriterator is as lazy as the chain of
+ * {@link MapIterator}, {@link FilterIterator}, {@link TakeWhileIterator},
+ * {@link TakeIterator} and {@link DropIterator} it replaces.
+ *
+ * @author flbulgarelli
+ *
+ */
+public final class FusedIterator<A> extends AdvanceThriterator<A> {
+
+  /** Applies a {@link Function} */
+  public static final int MAP = 0;
+  /** Retains elements that satisfy an {@link Evaluable} */
+  public static final int FILTER = 1;
+  /** Retains elements while they satisfy an {@link Evaluable} */
+  public static final int TAKE_WHILE = 2;
+  /** Retains up to a given amount of elements */
+  public static final int TAKE = 3;
+  /** Discards a given amount of elements */
+  public static final int DROP = 4;
+
+  private final Thriter<?> source;
+  private final int[] kinds;
+  private final Object[] operations;
+  private final int[] remaining;
+  private final boolean lookAhead;
+
+  private boolean ready;
+  private boolean done;
+
+  private Object value;
+  private int applied;
+  private boolean evaluated;
+
+  private Object currentValue;
+  private int currentApplied;
+
+  /**
+   * Creates a new {@link FusedIterator}
+   *
+   * @param source
+   *          the source of elements
+   * @param kinds
+   *          the kind of each stage
+   * @param operations
+   *          the function or predicate of each stage, or null
+   * @param amounts
+   *          the amount of elements to take or drop of each stage. It is not
+   *          modified
+   */
+  public FusedIterator(@NonNull Thriter<?> source, @NonNull int[] kinds, @NonNull Object[] operations,
+    @NonNull int[] amounts) {
+    this.source = source;
+    this.kinds = kinds;
+    this.operations = operations;
+    this.remaining = amounts.clone();
+    this.lookAhead = needsLookAhead(kinds);
+  }
+
+  private static boolean needsLookAhead(int[] kinds) {
+    for (int kind : kinds)
+      if (kind == FILTER || kind == TAKE_WHILE)
+        return true;
+    return false;
+  }
+
+  public boolean hasNext() {
+    if (ready)
+      return true;
+    if (done)
+      return false;
+    for (;;) {
+      if (takeExhausted() || !source.hasNext())
+        return endOfSource();
+      if (lookAhead) {
+        source.advanceNext();
+        evaluated = false;
+        applied = 0;
+      }
+      if (pass())
+        return ready = true;
+      if (done)
+        return false;
+      if (!lookAhead)
+        source.advanceNext();
+    }
+  }
+
+  /**
+   * Sends the next element through every stage
+   *
+   * @return if it was retained by all of them
+   */
+  private boolean pass() {
+    for (int i = 0; i < kinds.length; i++) {
+      switch (kinds[i]) {
+      case FILTER:
+        if (!predicateAt(i).eval(valueAt(i)))
+          return false;
+        break;
+      case TAKE_WHILE:
+        if (!predicateAt(i).eval(valueAt(i))) {
+          endOfSource();
+          return false;
+        }
+        break;
+      case TAKE:
+        remaining[i]--;
+        break;
+      case DROP:
+        if (remaining[i] > 0) {
+          remaining[i]--;
+          return false;
+        }
+        break;
+      }
+    }
+    return true;
+  }
+
+  private boolean takeExhausted() {
+    for (int i = 0; i < kinds.length; i++)
+      if (kinds[i] == TAKE && remaining[i] <= 0)
+        return true;
+    return false;
+  }
+
+  private boolean endOfSource() {
+    done = true;
+    return false;
+  }
+
+  /**
+   * Answers the value of the current element, as seen by the given stage,
+   * applying the pending mappings before it
+   */
+  private Object valueAt(int stage) {
+    if (!evaluated) {
+      value = source.current();
+      evaluated = true;
+    }
+    for (; applied < stage; applied++)
+      value = applyAt(applied, value);
+    return value;
+  }
+
+  private Object applyAt(int stage, Object value) {
+    if (kinds[stage] == MAP)
+      return functionAt(stage).apply(value);
+    return value;
+  }
+
+  public void advanceNext() throws NoSuchElementException {
+    if (!hasNext())
+      throw new NoSuchElementException();
+    ready = false;
+    if (lookAhead) {
+      currentValue = value;
+      currentApplied = applied;
+    } else {
+      source.advanceNext();
+      evaluated = false;
+      applied = 0;
+    }
+  }
+
+  public A current() {
+    if (!lookAhead)
+      return output(valueAt(kinds.length));
+    for (; currentApplied < kinds.length; currentApplied++)
+      currentValue = applyAt(currentApplied, currentValue);
+    return output(currentValue);
+  }
+
+  public Thunk<A> delayedCurrent() {
+    if (lookAhead || evaluated)
+      return super.delayedCurrent();
+    Thunk<?> thunk = source.delayedCurrent();
+    for (int i = 0; i < kinds.length; i++)
+      if (kinds[i] == MAP)
+        thunk = functionAt(i).delayedValue(thunk);
+    return delayedOutput(thunk);
+  }
+
+  /*
+   * Stages are chained so that each operation accepts the values answered by
+   * the previous ones, and the last of them answers elements of type A, which
+   * can not be expressed with generics. These are the only unchecked casts.
+   */
+
+  @SuppressWarnings("unchecked")
+  private Function<Object, Object> functionAt(int stage) {
+    return (Function<Object, Object>) operations[stage];
+  }
+
+  @SuppressWarnings("unchecked")
+  private Evaluable<Object> predicateAt(int stage) {
+    return (Evaluable<Object>) operations[stage];
+  }
+
+  @SuppressWarnings("unchecked")
+  private A output(Object value) {
+    return (A) value;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Thunk<A> delayedOutput(Thunk<?> thunk) {
+    return (Thunk<A>) thunk;
+  }
+
+}
@@ -0,0 +1,149 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.internal.iterator;
+
+import java.util.NoSuchElementException;
+
+import net.sf.roggen.collections.stream.MetricsSink;
+import net.sf.roggen.collections.stream.StageMetrics;
+import net.sf.roggen.defs.Thunk;
+import net.sf.roggen.iterators.thriter.AdvanceThriterator;
+import net.sf.roggen.iterators.thriter.Thriter;
+import net.sf.roggen.restrictions.check.NonNull;
+
+/**
+ * A thriterator that retrieves the elements of a source {@link Thriter},
+ * recording the number of retrieved elements, the time spent in each of its
+ * messages and the number of thunk evaluations, and reporting them to a
+ * {@link MetricsSink}.
+ * 
+ * @author flbulgarelli
+ * 
+ */
+public final class InstrumentedIterator<A> extends AdvanceThriterator<A> implements StageMetrics {
+
+  private final Thriter<A> source;
+  private final String name;
+  private final MetricsSink sink;
+  private boolean started;
+  private boolean finished;
+
+  private long elements;
+  private long hasNextNanos;
+  private long advanceNextNanos;
+  private long currentNanos;
+  private long thunkEvaluations;
+
+  /**
+   * Creates a new {@link InstrumentedIterator}
+   * 
+   * @param source
+   *          the source of elements
+   * @param name
+   *          the name of the instrumented stage
+   * @param sink
+   *          the sink metrics are reported to
+   */
+  public InstrumentedIterator(@NonNull Thriter<A> source, @NonNull String name, @NonNull MetricsSink sink) {
+    this.source = source;
+    this.name = name;
+    this.sink = sink;
+  }
+
+  public boolean hasNext() {
+    start();
+    long start = System.nanoTime();
+    boolean hasNext = source.hasNext();
+    hasNextNanos += System.nanoTime() - start;
+    if (!hasNext && !finished) {
+      finished = true;
+      sink.iterationFinished(this);
+    }
+    return hasNext;
+  }
+
+  public void advanceNext() throws NoSuchElementException {
+    start();
+    long start = System.nanoTime();
+    try {
+      source.advanceNext();
+      elements++;
+    } finally {
+      advanceNextNanos += System.nanoTime() - start;
+    }
+  }
+
+  public A current() {
+    long start = System.nanoTime();
+    try {
+      return source.current();
+    } finally {
+      currentNanos += System.nanoTime() - start;
+    }
+  }
+
+  public Thunk<A> delayedCurrent() {
+    final Thunk<A> thunk = source.delayedCurrent();
+    return new Thunk<A>() {
+      public A value() {
+        long start = System.nanoTime();
+        try {
+          return thunk.value();
+        } finally {
+          currentNanos += System.nanoTime() - start;
+          thunkEvaluations++;
+        }
+      }
+    };
+  }
+
+  private void start() {
+    if (!started) {
+      started = true;
+      sink.iterationStarted(this);
+    }
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public long getElements() {
+    return elements;
+  }
+
+  public long getHasNextNanos() {
+    return hasNextNanos;
+  }
+
+  public long getAdvanceNextNanos() {
+    return advanceNextNanos;
+  }
+
+  public long getCurrentNanos() {
+    return currentNanos;
+  }
+
+  public long getThunkEvaluations() {
+    return thunkEvaluations;
+  }
+
+  public String toString() {
+    return "StageMetrics(name=" + name + ", elements=" + elements + ", hasNextNanos=" + hasNextNanos
+      + ", advanceNextNanos=" + advanceNextNanos + ", currentNanos=" + currentNanos + ", thunkEvaluations="
+      + thunkEvaluations + ")";
+  }
+
+}
@@ -0,0 +1,101 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.internal.iterator;
+
+import java.util.LinkedList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import net.sf.roggen.defs.Applicable;
+import net.sf.roggen.iterators.UpdateCurrentThriterator;
+import net.sf.roggen.iterators.thriter.Thriter;
+import net.sf.roggen.lang.SoftException;
+import net.sf.roggen.restrictions.check.NonNull;
+
+/**
+ * A thriterator that applies a function to the elements of a source
+ * {@link Thriter} in tasks submitted to an executor, keeping up to a given
+ * amount of them in flight, and retrieves their results in source order.
+ * 
+ * The source is iterated in the consumer thread, and elements are only
+ * submitted when a result is requested and there are less than the maximum
+ * amount of pending ones.
+ * 
+ * @author flbulgarelli
+ * 
+ */
+public final class MapConcurrentIterator<A, B> extends UpdateCurrentThriterator<B> {
+
+  private final Thriter<A> source;
+  private final Applicable<? super A, ? extends B> function;
+  private final ExecutorService executor;
+  private final int maxInFlight;
+  private final LinkedList<Future<B>> pending = new LinkedList<Future<B>>();
+
+  /**
+   * Creates a new {@link MapConcurrentIterator}
+   * 
+   * @param source
+   *          the source of elements
+   * @param function
+   *          the function to apply to each element
+   * @param executor
+   *          the executor where the function is applied
+   * @param maxInFlight
+   *          the maximum number of pending results
+   */
+  public MapConcurrentIterator(@NonNull Thriter<A> source, @NonNull Applicable<? super A, ? extends B> function,
+    @NonNull ExecutorService executor, int maxInFlight) {
+    this.source = source;
+    this.function = function;
+    this.executor = executor;
+    this.maxInFlight = maxInFlight;
+  }
+
+  protected void updateCurrent() {
+    while (pending.size() < maxInFlight && source.hasNext()) {
+      source.advanceNext();
+      final A element = source.current();
+      pending.addLast(executor.submit(new Callable<B>() {
+        public B call() throws Exception {
+          return function.apply(element);
+        }
+      }));
+    }
+    if (pending.isEmpty())
+      return;
+    try {
+      setCurrent(pending.removeFirst().get());
+    } catch (ExecutionException e) {
+      cancelPending();
+      if (e.getCause() instanceof Error)
+        throw (Error) e.getCause();
+      throw SoftException.soften(e.getCause());
+    } catch (InterruptedException e) {
+      cancelPending();
+      Thread.currentThread().interrupt();
+      throw SoftException.soften(e);
+    }
+  }
+
+  private void cancelPending() {
+    for (Future<B> future : pending)
+      future.cancel(true);
+    pending.clear();
+  }
+
+}
@@ -0,0 +1,106 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.internal.iterator;
+
+import static net.sf.roggen.lang.tuple.Tuples.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+import net.sf.roggen.defs.function.Function;
+import net.sf.roggen.defs.tuple.Tuple2;
+import net.sf.roggen.iterators.UpdateCurrentThriterator;
+import net.sf.roggen.restrictions.check.NonNull;
+
+/**
+ * A thriterator that retrieves the pairs of elements of two source iterators
+ * whose keys are equal, by merging them. Both sources must be sorted by key,
+ * according to the given comparator.
+ * 
+ * Only the run of elements of the second source that share the current key is
+ * kept in memory.
+ * 
+ * @author flbulgarelli
+ * 
+ */
+public final class MergeJoinIterator<A, B, K> extends UpdateCurrentThriterator<Tuple2<A, B>> {
+
+  private final Iterator<A> left;
+  private final Iterator<B> right;
+  private final Function<? super A, ? extends K> leftKey;
+  private final Function<? super B, ? extends K> rightKey;
+  private final Comparator<? super K> comparator;
+
+  private final List<B> group = new ArrayList<B>();
+  private K groupKey;
+  private A current;
+  private int position;
+  private B pending;
+  private boolean hasPending;
+
+  /**
+   * Creates a new {@link MergeJoinIterator}
+   */
+  public MergeJoinIterator(@NonNull Iterator<A> left, @NonNull Iterator<B> right,
+    @NonNull Function<? super A, ? extends K> leftKey, @NonNull Function<? super B, ? extends K> rightKey,
+    @NonNull Comparator<? super K> comparator) {
+    this.left = left;
+    this.right = right;
+    this.leftKey = leftKey;
+    this.rightKey = rightKey;
+    this.comparator = comparator;
+  }
+
+  protected void updateCurrent() {
+    for (;;) {
+      if (position < group.size()) {
+        setCurrent(_(current, group.get(position++)));
+        return;
+      }
+      if (!left.hasNext())
+        return;
+      current = left.next();
+      position = 0;
+      K key = leftKey.apply(current);
+      if (group.isEmpty() || comparator.compare(key, groupKey) != 0)
+        fillGroup(key);
+    }
+  }
+
+  /**
+   * Discards the elements of the second source whose key is lower than the
+   * given one, and collects the ones whose key is equal to it
+   */
+  private void fillGroup(K key) {
+    group.clear();
+    groupKey = key;
+    while (hasPending || right.hasNext()) {
+      B element = hasPending ? pending : right.next();
+      int comparison = comparator.compare(rightKey.apply(element), key);
+      if (comparison > 0) {
+        pending = element;
+        hasPending = true;
+        return;
+      }
+      hasPending = false;
+      pending = null;
+      if (comparison == 0)
+        group.add(element);
+    }
+  }
+
+}
@@ -0,0 +1,182 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.internal.iterator;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import net.sf.roggen.iterators.UpdateCurrentThriterator;
+import net.sf.roggen.iterators.thriter.Thriter;
+import net.sf.roggen.lang.SoftException;
+import net.sf.roggen.restrictions.check.NonNull;
+
+/**
+ * A thriterator that retrieves the elements of a source {@link Thriter}, which
+ * is drained by a task submitted to an executor into a bounded queue. Thus,
+ * retrieving elements from the source overlaps with processing them in the
+ * consumer thread.
+ * 
+ * The task is submitted when the first element is requested. When the queue
+ * stays full for a while, the task ends, releasing its executor thread, and it
+ * is submitted again once the consumer has taken elements from the queue. It
+ * also ends when this thriterator is no longer reachable. Thus, abandoned
+ * iterations never keep executor threads blocked.
+ * 
+ * Exceptions thrown by the source are rethrown in the consumer thread, when
+ * the element that caused them is requested.
+ * 
+ * @author flbulgarelli
+ * 
+ */
+public final class PrefetchIterator<A> extends UpdateCurrentThriterator<A> {
+
+  private static final Object NULL = new Object();
+  private static final Object END = new Object();
+  private static final long OFFER_TIMEOUT_MILLIS = 10;
+
+  private final Producer<A> producer;
+
+  /**
+   * Creates a new {@link PrefetchIterator}
+   * 
+   * @param source
+   *          the source of elements
+   * @param bufferSize
+   *          the maximum number of elements retrieved in advance
+   * @param executor
+   *          the executor where the source is drained
+   */
+  public PrefetchIterator(@NonNull Thriter<A> source, int bufferSize, @NonNull ExecutorService executor) {
+    this.producer = new Producer<A>(source, new ArrayBlockingQueue<Object>(bufferSize), executor, this);
+  }
+
+  protected void updateCurrent() {
+    Object element;
+    try {
+      producer.resume();
+      element = producer.queue.take();
+    } catch (InterruptedException e) {
+      producer.done = true;
+      Thread.currentThread().interrupt();
+      throw SoftException.soften(e);
+    }
+    if (element == END)
+      return;
+    if (element instanceof Failure) {
+      Throwable cause = ((Failure) element).cause;
+      if (cause instanceof Error)
+        throw (Error) cause;
+      throw SoftException.soften(cause);
+    }
+    setCurrent(element == NULL ? null : asElement(element));
+  }
+
+  /* Besides END, NULL and failures, the queue only holds source elements */
+  @SuppressWarnings("unchecked")
+  private A asElement(Object element) {
+    return (A) element;
+  }
+
+  /**
+   * Drains the source into the queue, while there is room in it and its owner
+   * is reachable. It only references its owner weakly, so that abandoned
+   * iterators can be collected.
+   */
+  private static final class Producer<A> implements Runnable {
+    private final Thriter<A> source;
+    private final BlockingQueue<Object> queue;
+    private final ExecutorService executor;
+    private final WeakReference<Object> owner;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile boolean done;
+    private Object pending;
+
+    public Producer(Thriter<A> source, BlockingQueue<Object> queue, ExecutorService executor, Object owner) {
+      this.source = source;
+      this.queue = queue;
+      this.executor = executor;
+      this.owner = new WeakReference<Object>(owner);
+    }
+
+    /**
+     * Submits this producer, unless it is already running, finished, or there
+     * is no room in the queue
+     */
+    public void resume() {
+      if (!done && queue.remainingCapacity() > 0 && running.compareAndSet(false, true))
+        executor.submit(this);
+    }
+
+    public void run() {
+      try {
+        while (!done) {
+          if (owner.get() == null) {
+            done = true;
+            return;
+          }
+          if (pending == null)
+            pending = next();
+          if (queue.offer(pending, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+            done = pending == END || pending instanceof Failure;
+            pending = null;
+          } else if (!suspend()) {
+            return;
+          }
+        }
+      } catch (InterruptedException e) {
+        done = true;
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    /**
+     * Releases the executor thread, unless the consumer has made room in the
+     * queue meanwhile
+     * 
+     * @return if this producer must keep running
+     */
+    private boolean suspend() {
+      running.set(false);
+      return queue.remainingCapacity() > 0 && running.compareAndSet(false, true);
+    }
+
+    private Object next() {
+      try {
+        if (!source.hasNext())
+          return END;
+        source.advanceNext();
+        A element = source.current();
+        return element == null ? NULL : element;
+      } catch (RuntimeException e) {
+        return new Failure(e);
+      } catch (Error e) {
+        return new Failure(e);
+      }
+    }
+  }
+
+  private static final class Failure {
+    private final Throwable cause;
+
+    public Failure(Throwable cause) {
+      this.cause = cause;
+    }
+  }
+
+}
@@ -0,0 +1,81 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.internal.iterator;
+
+import java.util.Iterator;
+
+import net.sf.roggen.defs.type.NumberType;
+import net.sf.roggen.iterators.UpdateCurrentThriterator;
+import net.sf.roggen.restrictions.check.NonNull;
+
+/**
+ * A thriterator that retrieves the sum of each window of {@code size}
+ * consecutive elements of a source iterator. The sum is updated incrementally,
+ * by adding the element that enters the window and subtracting the one that
+ * leaves it, so each element is added and subtracted only once.
+ * 
+ * @author flbulgarelli
+ * 
+ */
+public final class SlidingSumIterator<A> extends UpdateCurrentThriterator<A> {
+
+  private final Iterator<A> iter;
+  private final NumberType<A> numberType;
+  private final Object[] window;
+  private int position;
+  private int count;
+  private A sum;
+
+  /**
+   * Creates a new {@link SlidingSumIterator}
+   * 
+   * @param iter
+   *          the source of elements
+   * @param size
+   *          the size of windows
+   * @param numberType
+   *          the type of elements
+   */
+  public SlidingSumIterator(@NonNull Iterator<A> iter, int size, @NonNull NumberType<A> numberType) {
+    this.iter = iter;
+    this.numberType = numberType;
+    this.window = new Object[size];
+    this.sum = numberType.zero();
+  }
+
+  protected void updateCurrent() {
+    while (iter.hasNext()) {
+      A element = iter.next();
+      if (count == window.length)
+        sum = numberType.subtract(sum, elementAt(position));
+      else
+        count++;
+      sum = numberType.add(sum, element);
+      window[position] = element;
+      position = (position + 1) % window.length;
+      if (count == window.length) {
+        setCurrent(sum);
+        break;
+      }
+    }
+  }
+
+  /* The window only holds elements of the source */
+  @SuppressWarnings("unchecked")
+  private A elementAt(int index) {
+    return (A) window[index];
+  }
+
+}
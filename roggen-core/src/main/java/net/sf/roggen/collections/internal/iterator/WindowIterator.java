@@ -0,0 +1,129 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.internal.iterator;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+
+import net.sf.roggen.iterators.UpdateCurrentThriterator;
+import net.sf.roggen.restrictions.check.NonNull;
+
+/**
+ * A thriterator that retrieves windows of {@code size} consecutive elements of
+ * a source iterator, each one starting {@code step} elements after the
+ * previous one.
+ * 
+ * Windows are unmodifiable views of a shared buffer. Elements of the buffer are
+ * never overwritten: when it is full, the elements of the current window are
+ * copied to a new one. Thus, each element is copied a constant amount of times
+ * on average, and windows remain valid after the iteration advances.
+ * 
+ * @author flbulgarelli
+ * 
+ */
+public final class WindowIterator<A> extends UpdateCurrentThriterator<List<A>> {
+
+  private final Iterator<A> iter;
+  private final int size;
+  private final int step;
+  private final boolean partial;
+  private Object[] buffer;
+  private int start;
+  private int end;
+  private boolean started;
+
+  /**
+   * Creates a new {@link WindowIterator}
+   * 
+   * @param iter
+   *          the source of elements
+   * @param size
+   *          the size of windows
+   * @param step
+   *          the distance between the start of two consecutive windows
+   * @param partial
+   *          if a last window with less than {@code size} elements should be
+   *          retrieved
+   */
+  public WindowIterator(@NonNull Iterator<A> iter, int size, int step, boolean partial) {
+    this.iter = iter;
+    this.size = size;
+    this.step = step;
+    this.partial = partial;
+    this.buffer = newBuffer();
+  }
+
+  private Object[] newBuffer() {
+    return new Object[step < size ? 2 * size : size];
+  }
+
+  protected void updateCurrent() {
+    if (started)
+      slide();
+    started = true;
+    while (end - start < size && iter.hasNext())
+      add(iter.next());
+    if (end - start == size || partial && end > start)
+      setCurrent(new Window<A>(buffer, start, end - start));
+  }
+
+  private void slide() {
+    start += step;
+    if (start < end)
+      return;
+    for (int i = end; i < start && iter.hasNext(); i++)
+      iter.next();
+    buffer = newBuffer();
+    start = end = 0;
+  }
+
+  private void add(A element) {
+    if (end == buffer.length) {
+      Object[] newBuffer = newBuffer();
+      System.arraycopy(buffer, start, newBuffer, 0, end - start);
+      buffer = newBuffer;
+      end -= start;
+      start = 0;
+    }
+    buffer[end++] = element;
+  }
+
+  private static final class Window<A> extends AbstractList<A> implements RandomAccess {
+    private final Object[] elements;
+    private final int offset;
+    private final int size;
+
+    public Window(Object[] elements, int offset, int size) {
+      this.elements = elements;
+      this.offset = offset;
+      this.size = size;
+    }
+
+    /* The buffer only holds elements of the source */
+    @SuppressWarnings("unchecked")
+    public A get(int index) {
+      if (index < 0 || index >= size)
+        throw new IndexOutOfBoundsException("At " + index);
+      return (A) elements[offset + index];
+    }
+
+    public int size() {
+      return size;
+    }
+  }
+
+}
@@ -26,15 +26,21 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.RandomAccess;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 
+import net.sf.roggen.collections.internal.Chunks;
 import net.sf.roggen.defs.Applicable;
 import net.sf.roggen.defs.Applicable2;
 import net.sf.roggen.defs.Evaluable;
 import net.sf.roggen.defs.Evaluable2;
 import net.sf.roggen.defs.reduction.Accumulator;
+import net.sf.roggen.defs.reduction.MergeableAccumulator;
+import net.sf.roggen.defs.reduction.MergeableReduction;
 import net.sf.roggen.defs.reduction.Reduction;
 import net.sf.roggen.defs.tuple.Tuple2;
 import net.sf.roggen.defs.type.NumberType;
@@ -178,6 +184,68 @@ public class Iterables {
     return accum.value();
   }
 
+  /**
+   * Answers the result of aggregating the given <code>iterable</code> using the
+   * given <code>reduction</code>, like {@link #reduce(Iterable, Reduction)}.
+   * 
+   * If the reduction is a {@link MergeableReduction}, and the iterable is a
+   * random access list, it is split into chunks that are reduced in the given
+   * executor, and then merged in order. Otherwise, it is reduced in the
+   * current thread.
+   * 
+   * @param <A>
+   *          the {@link Iterable}'s elements type
+   * @param <B>
+   *          the aggregated value type
+   * @param iterable
+   *          the iterable to aggregate
+   * @param reduction
+   *          the {@link Reduction} to apply to this iterable
+   * @param executor
+   *          the executor where chunks are reduced
+   * @return the result of aggregating the given <code>iterable</code>'s
+   *         elements.
+   * @since 2.3
+   */
+  @NonNull
+  public static <A, B> B reduce(@NonNull Iterable<A> iterable, @NonNull Reduction<? super A, B> reduction,
+    @NonNull ExecutorService executor) {
+    if (!(reduction instanceof MergeableReduction && iterable instanceof List
+      && iterable instanceof RandomAccess))
+      return reduce(iterable, reduction);
+    return reduceChunks((List<A>) iterable, (MergeableReduction<? super A, B>) reduction, executor);
+  }
+
+  /**
+   * Reduces each chunk of the given list with its own accumulator, and merges
+   * them in chunk order. The first chunk is reduced in the current thread, and
+   * the rest of them are submitted to the executor
+   */
+  private static <A, B> B reduceChunks(List<? extends A> list, final MergeableReduction<A, B> reduction,
+    ExecutorService executor) {
+    int chunkSize = Chunks.chunkSize(list.size());
+    List<Callable<MergeableAccumulator<A, B>>> tasks = new ArrayList<Callable<MergeableAccumulator<A, B>>>();
+    for (int from = 0; from == 0 || from < list.size(); from += chunkSize) {
+      final List<? extends A> chunk = list.subList(from, Math.min(from + chunkSize, list.size()));
+      tasks.add(new Callable<MergeableAccumulator<A, B>>() {
+        public MergeableAccumulator<A, B> call() throws Exception {
+          return accumulate(chunk, reduction.newAccumulator());
+        }
+      });
+    }
+    List<MergeableAccumulator<A, B>> partials = Chunks.evalInOrder(tasks, executor);
+    MergeableAccumulator<A, B> result = partials.get(0);
+    for (MergeableAccumulator<A, B> partial : partials.subList(1, partials.size()))
+      result.merge(partial);
+    return result.value();
+  }
+
+  private static <A, C extends Accumulator<A, ?>> C accumulate(Iterable<? extends A> elements, C accum) {
+    for (A element : elements)
+      accum.accumulate(element);
+    return accum;
+  }
+
   /*
    * Search
    */
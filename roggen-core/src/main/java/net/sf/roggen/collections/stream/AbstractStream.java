@@ -20,22 +20,24 @@ import static net.sf.roggen.lang.tuple.Tuples.*;
 
 import java.io.IOException;
 import java.lang.reflect.Array;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 import net.sf.roggen.check.Ensure;
 import net.sf.roggen.collections.EmptySourceException;
 import net.sf.roggen.collections.internal.iterator.ConcatIterator;
+import net.sf.roggen.collections.internal.iterator.CrossIterator;
 import net.sf.roggen.collections.internal.iterator.DropIterator;
 import net.sf.roggen.collections.internal.iterator.FilterIndexIterator;
 import net.sf.roggen.collections.internal.iterator.FilterIterator;
@@ -43,24 +45,42 @@ import net.sf.roggen.collections.internal.iterator.FlatMapIterator;
 import net.sf.roggen.collections.internal.iterator.IndicesIterator;
 import net.sf.roggen.collections.internal.iterator.InsertBeforeIndexIterator;
 import net.sf.roggen.collections.internal.iterator.InsertBeforeIterator;
+import net.sf.roggen.collections.internal.iterator.InstrumentedIterator;
+import net.sf.roggen.collections.internal.iterator.MapConcurrentIterator;
+import net.sf.roggen.collections.internal.iterator.MergeJoinIterator;
+import net.sf.roggen.collections.internal.iterator.PrefetchIterator;
+import net.sf.roggen.collections.internal.iterator.SlidingSumIterator;
 import net.sf.roggen.collections.internal.iterator.TakeIterator;
 import net.sf.roggen.collections.internal.iterator.TakeWhileIterator;
+import net.sf.roggen.collections.internal.iterator.WindowIterator;
 import net.sf.roggen.collections.internal.iterator.ZipIterator;
 import net.sf.roggen.collections.iterable.Iterables;
 import net.sf.roggen.collections.iterable.internal.IterablesInternal;
 import net.sf.roggen.collections.stream.internal.IteratorStream;
 import net.sf.roggen.collections.stream.internal.ListStream;
 import net.sf.roggen.collections.stream.internal.NonEmptyIteratorStream;
+import net.sf.roggen.collections.stream.internal.algorithms.ConcatStream;
+import net.sf.roggen.collections.stream.internal.algorithms.ConcurrentMemoizedStream;
 import net.sf.roggen.collections.stream.internal.algorithms.DeconsTransformStream;
 import net.sf.roggen.collections.stream.internal.algorithms.DropWhileStream;
+import net.sf.roggen.collections.stream.internal.algorithms.ExternalSortedStream;
+import net.sf.roggen.collections.stream.internal.algorithms.HashIndexedStream;
 import net.sf.roggen.collections.stream.internal.algorithms.MapStream;
 import net.sf.roggen.collections.stream.internal.algorithms.MemoizedStream;
+import net.sf.roggen.collections.stream.internal.algorithms.PrefixMemoizedStream;
 import net.sf.roggen.collections.stream.internal.algorithms.PrependStream;
+import net.sf.roggen.collections.stream.internal.algorithms.RandomAccessStream;
+import net.sf.roggen.collections.stream.internal.algorithms.ReverseStream;
 import net.sf.roggen.collections.stream.internal.algorithms.SizeLimitedStream;
 import net.sf.roggen.collections.stream.internal.algorithms.SortedStream;
+import net.sf.roggen.collections.stream.internal.algorithms.TopKStream;
 import net.sf.roggen.collections.stream.internal.algorithms.TransformStream;
+import net.sf.roggen.collections.stream.internal.algorithms.ZipStream;
 import net.sf.roggen.collections.stream.internal.algorithms.delayed.DelayedDeconsTransformStream;
 import net.sf.roggen.collections.stream.internal.algorithms.delayed.DelayedPrependStream;
+import net.sf.roggen.collections.stream.primitive.DoubleStream;
+import net.sf.roggen.collections.stream.primitive.IntStream;
+import net.sf.roggen.collections.stream.primitive.LongStream;
 import net.sf.roggen.defs.Applicable;
 import net.sf.roggen.defs.Applicable2;
 import net.sf.roggen.defs.Evaluable;
@@ -70,11 +90,16 @@ import net.sf.roggen.defs.Thunk;
 import net.sf.roggen.defs.function.Function;
 import net.sf.roggen.defs.function.Function2;
 import net.sf.roggen.defs.partial.EmptyAware;
+import net.sf.roggen.defs.predicate.Predicate;
 import net.sf.roggen.defs.predicate.Predicate2;
+import net.sf.roggen.defs.primitive.ToDoubleApplicable;
+import net.sf.roggen.defs.primitive.ToIntApplicable;
+import net.sf.roggen.defs.primitive.ToLongApplicable;
 import net.sf.roggen.defs.reduction.Accumulator;
 import net.sf.roggen.defs.reduction.Reduction;
 import net.sf.roggen.defs.tuple.Tuple2;
 import net.sf.roggen.defs.type.NumberType;
+import net.sf.roggen.io.Codec;
 import net.sf.roggen.iterators.AppendThriterator;
 import net.sf.roggen.iterators.delayed.DelayedAppendIterator;
 import net.sf.roggen.iterators.thriter.Thriter;
@@ -86,10 +111,12 @@ import net.sf.roggen.lang.function.AbstractFunction;
 import net.sf.roggen.lang.function.AbstractFunction2;
 import net.sf.roggen.lang.function.Functions;
 import net.sf.roggen.lang.internal.ToString;
+import net.sf.roggen.lang.predicate.AbstractPredicate;
 import net.sf.roggen.lang.predicate.AbstractPredicate2;
 import net.sf.roggen.lang.predicate.Equiv;
 import net.sf.roggen.lang.predicate.Predicates;
 import net.sf.roggen.lang.tuple.Tuples;
+import net.sf.roggen.numbers.NumberTypes;
 import net.sf.roggen.restrictions.Constant;
 import net.sf.roggen.restrictions.check.NonNull;
 import net.sf.roggen.restrictions.check.NotNegative;
@@ -217,6 +244,10 @@ public abstract class AbstractStream<A> extends AbstractBasicStream<A> {
     return findOrNone(((Function<A, K>) function).isEqual(key));
   }
 
+  public <K> IndexedStream<K, A> indexOn(Function<? super A, ? extends K> function) {
+    return new HashIndexedStream<K, A>(memoize(), function);
+  }
+
   @Override
   public A find(Evaluable<? super A> predicate) throws EmptySourceException, NoSuchElementException {
     return Iterables.find(this, predicate);
@@ -276,6 +307,18 @@ public abstract class AbstractStream<A> extends AbstractBasicStream<A> {
     return new MapStream<A, B>(this, function);
   }
 
+  public IntStream mapToInt(ToIntApplicable<? super A> function) {
+    return IntStream.from(this, function);
+  }
+
+  public LongStream mapToLong(ToLongApplicable<? super A> function) {
+    return LongStream.from(this, function);
+  }
+
+  public DoubleStream mapToDouble(ToDoubleApplicable<? super A> function) {
+    return DoubleStream.from(this, function);
+  }
+
   @Override
   public <B> Stream<B> flatMap(final Function<? super A, ? extends Iterable<? extends B>> function) {
     return Streams.from(new FlatMapIterator<A, B>(iterator(), function));
@@ -559,17 +602,25 @@ public abstract class AbstractStream<A> extends AbstractBasicStream<A> {
     return new SortedStream<A>(this, comparator);
   }
 
+  public Stream<A> sortBy(Comparator<A> comparator, Codec<A> codec, @NotNegative int runSize) {
+    return new ExternalSortedStream<A>(this, comparator, codec, runSize);
+  }
+
+  public Stream<A> topK(@NotNegative int k, Comparator<? super A> comparator) {
+    return new TopKStream<A>(this, k, comparator);
+  }
+
   private Comparator<A> natural() {
     return (Comparator<A>) Compare.<Comparable> natural();
   }
 
   public Stream<A> reverse() {
-    if (this.isEmpty())
-      return Streams.empty();
-    LinkedList<A> reversedList = new LinkedList<A>();
+    if (RandomAccessStream.isRandomAccess(this))
+      return new ReverseStream<A>(this);
+    ArrayList<A> buffer = new ArrayList<A>();
     for (A element : this)
-      reversedList.addFirst(element);
-    return Streams.from((List<A>) reversedList);
+      buffer.add(element);
+    return new ReverseStream<A>(Streams.from(buffer));
   }
 
   public <K, V> Map<K, V> groupOn(Applicable<? super A, K> groupFunction, Reduction<A, V> reduction) {
@@ -590,6 +641,76 @@ public abstract class AbstractStream<A> extends AbstractBasicStream<A> {
     return (Map<K, V>) map;
   }
 
+  public Stream<List<A>> window(int size, int step) {
+    Ensure.that().isGreaterThan("size", size, 0);
+    Ensure.that().isGreaterThan("step", step, 0);
+    return Streams.from(new WindowIterator<A>(iterator(), size, step, false));
+  }
+
+  public Stream<List<A>> batch(int size) {
+    Ensure.that().isGreaterThan("size", size, 0);
+    return Streams.from(new WindowIterator<A>(iterator(), size, size, true));
+  }
+
+  public Stream<A> slidingSum(int size, NumberType<A> numberType) {
+    Ensure.that().isGreaterThan("size", size, 0);
+    return Streams.from(new SlidingSumIterator<A>(iterator(), size, numberType));
+  }
+
+  public Stream<Integer> slidingCountOf(int size, final Evaluable<? super A> predicate) {
+    return map(new AbstractFunction<A, Integer>() {
+      public Integer apply(A arg) {
+        return predicate.eval(arg) ? 1 : 0;
+      }
+    }).slidingSum(size, NumberTypes.integer());
+  }
+
+  public <B, K> Stream<Tuple2<A, B>> join(Stream<B> other, final Function<? super A, ? extends K> keyFunction,
+    Function<? super B, ? extends K> otherKeyFunction) {
+    final IndexedStream<K, B> index = other.indexOn(otherKeyFunction);
+    return flatMap(new AbstractFunction<A, Iterable<Tuple2<A, B>>>() {
+      public Iterable<Tuple2<A, B>> apply(A arg) {
+        List<B> matches = index.lookupAll(keyFunction.apply(arg));
+        List<Tuple2<A, B>> pairs = new ArrayList<Tuple2<A, B>>(matches.size());
+        for (B match : matches)
+          pairs.add(_(arg, match));
+        return pairs;
+      }
+    });
+  }
+
+  public <B, K> Stream<Tuple2<A, Option<B>>> leftJoin(Stream<B> other,
+    final Function<? super A, ? extends K> keyFunction, Function<? super B, ? extends K> otherKeyFunction) {
+    final IndexedStream<K, B> index = other.indexOn(otherKeyFunction);
+    return flatMap(new AbstractFunction<A, Iterable<Tuple2<A, Option<B>>>>() {
+      public Iterable<Tuple2<A, Option<B>>> apply(A arg) {
+        List<B> matches = index.lookupAll(keyFunction.apply(arg));
+        if (matches.isEmpty())
+          return Collections.<Tuple2<A, Option<B>>> singletonList(_(arg, (Option<B>) Option.<B> none()));
+        List<Tuple2<A, Option<B>>> pairs = new ArrayList<Tuple2<A, Option<B>>>(matches.size());
+        for (B match : matches)
+          pairs.add(_(arg, (Option<B>) Option.some(match)));
+        return pairs;
+      }
+    });
+  }
+
+  public <B, K> Stream<A> semiJoin(Stream<B> other, final Function<? super A, ? extends K> keyFunction,
+    Function<? super B, ? extends K> otherKeyFunction) {
+    final IndexedStream<K, B> index = other.indexOn(otherKeyFunction);
+    return filter(new AbstractPredicate<A>() {
+      public boolean eval(A argument) {
+        return index.containsKey(keyFunction.apply(argument));
+      }
+    });
+  }
+
+  public <B, K> Stream<Tuple2<A, B>> mergeJoin(Stream<B> other, Function<? super A, ? extends K> keyFunction,
+    Function<? super B, ? extends K> otherKeyFunction, Comparator<? super K> comparator) {
+    return Streams.from(new MergeJoinIterator<A, B, K>(iterator(), other.iterator(), keyFunction, otherKeyFunction,
+      comparator));
+  }
+
   public Stream<Tuple2<A, A>> cross() {
     return cross(this);
   }
@@ -606,56 +727,35 @@ public abstract class AbstractStream<A> extends AbstractBasicStream<A> {
     return cross(Streams.from(other));
   }
 
-  // this >>= (\x -> other >>= (\y -> return (x,y)))
-  public <B> Stream<Tuple2<A, B>> cross(@NonNull final Stream<B> other) {
-    return transform(new AbstractFunction<Stream<A>, Stream<Tuple2<A, B>>>() {
-      public Stream<Tuple2<A, B>> apply(Stream<A> stram) {
-        return flatMap(new AbstractFunction<A, Stream<Tuple2<A, B>>>() {
-          public Stream<Tuple2<A, B>> apply(final A x) {
-            return other.flatMap(new AbstractFunction<B, Stream<Tuple2<A, B>>>() {
-              public Stream<Tuple2<A, B>> apply(B y) {
-                return cons(_(x, y));
-              }
-            });
+  public <B> Stream<Tuple2<A, B>> cross(@NonNull Stream<B> other) {
+    final Stream<B> memoizedOther = other.memoize();
+    return new AbstractStream<Tuple2<A, B>>() {
+      public Thriterator<Tuple2<A, B>> iterator() {
+        return new CrossIterator<Tuple2<A, B>>(AbstractStream.this, memoizedOther) {
+          protected Tuple2<A, B> combine(Object[] values) {
+            return _((A) values[0], (B) values[1]);
           }
-        });
+        };
       }
-    });
+    };
   }
 
-  public Stream<Stream<A>> crossStreams(@NonNull Stream<Stream<A>> other) {
+  public Stream<Stream<A>> crossStreams(@NonNull final Stream<Stream<A>> other) {
     Ensure.that().isNotEmpty("other", (EmptyAware) other);
-    return fcross(other.prepend(this));
-  }
-
-  // fcross [xs,ys] = xs >>= \x -> ys >>= \y -> return [x,y]
-  // fcross (xs:xss) = xs >>= \x -> (fcross xss) >>= \ys -> return (x:ys)
-  private static <A> Stream<Stream<A>> fcross(Stream<Stream<A>> other) {
-    return other.transform(new AbstractFunction<Stream<Stream<A>>, Stream<Stream<A>>>() {
-      public Stream<Stream<A>> apply(Stream<Stream<A>> xss_) {
-        final Stream<Stream<A>> xss = xss_.memoize();
-        if (xss.size() == 2)
-          return xss.first().flatMap(new AbstractFunction<A, Stream<Stream<A>>>() {
-            public Stream<Stream<A>> apply(final A x) {
-              return xss.second().flatMap(new AbstractFunction<A, Stream<Stream<A>>>() {
-                public Stream<Stream<A>> apply(A y) {
-                  return cons(cons(x, y));
-                }
-              });
-            }
-          });
-
-        return xss.head().flatMap(new AbstractFunction<A, Stream<Stream<A>>>() {
-          public Stream<Stream<A>> apply(final A x) {
-            return fcross(xss.tail()).flatMap(new AbstractFunction<Stream<A>, Stream<Stream<A>>>() {
-              public Stream<Stream<A>> apply(Stream<A> ys) {
-                return cons(cons(x, ys));
-              }
-            });
+    final Stream<Stream<A>> memoizedOther = other.map(new AbstractFunction<Stream<A>, Stream<A>>() {
+      public Stream<A> apply(Stream<A> arg) {
+        return arg.memoize();
+      }
+    }).memoize();
+    return new AbstractStream<Stream<A>>() {
+      public Thriterator<Stream<A>> iterator() {
+        return new CrossIterator<Stream<A>>(memoizedOther.prepend(AbstractStream.this).toArray(Stream.class)) {
+          protected Stream<A> combine(Object[] values) {
+            return Streams.from((A[]) values.clone());
           }
-        });
+        };
       }
-    });
+    };
   }
 
   @Override
@@ -720,6 +820,8 @@ public abstract class AbstractStream<A> extends AbstractBasicStream<A> {
   }
   
   public final Stream<A> concat(Iterable<? extends A> other) {
+    if (other instanceof Stream)
+      return new ConcatStream<A>(this, (Stream<A>) other);
     return concat(other.iterator());
   }
   
@@ -740,10 +842,13 @@ public abstract class AbstractStream<A> extends AbstractBasicStream<A> {
   }
 
   public final <B, C> Stream<C> zipWith(Function2<? super A, ? super B, C> function, B... elements) {
-    return zipWith(function, Thriterators.from(elements));
+    return zipWith(function, Arrays.asList(elements));
   }
 
   public final <B, C> Stream<C> zipWith(Function2<? super A, ? super B, C> function, Iterable<B> other) {
+    if (RandomAccessStream.isRandomAccess(this) && RandomAccessStream.isRandomAccess(other))
+      return new ZipStream<A, B, C>(this, other instanceof Stream ? (Stream<B>) other : Streams.from((List<B>) other),
+        function);
     return zipWith(function, other.iterator());
   }
   
@@ -754,25 +859,65 @@ public abstract class AbstractStream<A> extends AbstractBasicStream<A> {
   public Stream<A> memoize() {
     return new MemoizedStream<A>(iterator());
   }
+
+  public Stream<A> concurrentMemoize() {
+    return new ConcurrentMemoizedStream<A>(iterator());
+  }
+
+  public Stream<A> parallel(ExecutorService executor) {
+    return this;
+  }
+
+  public Stream<A> prefetch(final int bufferSize, final ExecutorService executor) {
+    Ensure.that().isGreaterThan("bufferSize", bufferSize, 0);
+    return new AbstractStream<A>() {
+      public Thriterator<A> iterator() {
+        return new PrefetchIterator<A>(AbstractStream.this.iterator(), bufferSize, executor);
+      }
+    };
+  }
+
+  public <B> Stream<B> mapConcurrent(final Applicable<? super A, ? extends B> function,
+    final ExecutorService executor, final int maxInFlight) {
+    Ensure.that().isGreaterThan("maxInFlight", maxInFlight, 0);
+    return new AbstractStream<B>() {
+      public Thriterator<B> iterator() {
+        return new MapConcurrentIterator<A, B>(AbstractStream.this.iterator(), function, executor, maxInFlight);
+      }
+    };
+  }
+
+  public Stream<A> instrument(final String name, final MetricsSink sink) {
+    return new AbstractStream<A>() {
+      public Thriterator<A> iterator() {
+        return new InstrumentedIterator<A>(AbstractStream.this.iterator(), name, sink);
+      }
+    };
+  }
+
+  public Stream<A> instrument(String name) {
+    MetricsSink sink = Instrumentation.getSink();
+    if (sink == null)
+      return this;
+    return instrument(name, sink);
+  }
   
-  /*
-//TODO
   public Stream<A> memoize(int numberOfElements) {
-    return memoize();
+    return new PrefixMemoizedStream<A>(this, numberOfElements);
   }
 
   @Override
   public Tuple2<Stream<A>, Stream<A>> splitBeforeIndex(@NotNegative int position) {
-    Stream<A> stream = this.memoize(position); //TODO improve performance
+    Stream<A> stream = this.memoize(position);
     return _(stream.take(position), stream.drop(position));
   }
-  
+
   public Tuple2<Stream<A>, Stream<A>> splitBefore(A element) {
-    Stream<A> stream = this.memoize(); //TODO improve performance
     Predicate<A> notEq = Predicates.equal(element).not();
+    Stream<A> stream = new PrefixMemoizedStream<A>(this, notEq);
     return _(stream.takeWhile(notEq), stream.dropWhile(notEq));
   }
-  */
+
   @Override
   public Stream<A> insertBeforeIndex(A element, @NotNegative int position) {
     return Streams.from(new InsertBeforeIndexIterator(position, element, iterator()));
@@ -0,0 +1,88 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.stream;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import net.sf.roggen.collections.EmptySourceException;
+import net.sf.roggen.defs.function.Function;
+import net.sf.roggen.lang.Option;
+
+/**
+ * A {@link Stream} that keeps a hash index of its elements by a key, so that
+ * they can be looked up in constant time, instead of traversing the stream.
+ * 
+ * The index is built only once, the first time it is needed.
+ * 
+ * @author flbulgarelli
+ * 
+ * @param <K>
+ *          the type of keys
+ * @param <A>
+ *          the type of elements
+ * @since 2.3
+ * @see Stream#indexOn(Function)
+ */
+public interface IndexedStream<K, A> extends Stream<A> {
+
+  /**
+   * Answers the first element whose key is equal to the given one.
+   * 
+   * @param key
+   * @return the first element with the given key
+   * @throws EmptySourceException
+   *           if this stream is empty
+   * @throws NoSuchElementException
+   *           if no element has the given key
+   * @see Stream#lookup(Object, Function)
+   */
+  A lookup(K key) throws EmptySourceException, NoSuchElementException;
+
+  /**
+   * Answers the first element whose key is equal to the given one, wrapped into
+   * an {@link Option}
+   * 
+   * @param key
+   * @return the first element with the given key, if exists. None, otherwise
+   * @see Stream#lookupOrNone(Object, Function)
+   */
+  Option<A> lookupOrNone(K key);
+
+  /**
+   * Answers all the elements whose key is equal to the given one, in the order
+   * they are retrieved by this stream
+   * 
+   * @param key
+   * @return an unmodifiable, possibly empty, list
+   */
+  List<A> lookupAll(K key);
+
+  /**
+   * Answers if there is an element whose key is equal to the given one
+   * 
+   * @param key
+   * @return if the key is indexed
+   */
+  boolean containsKey(K key);
+
+  /**
+   * Answers the function used to compute the keys of the elements
+   * 
+   * @return the key function
+   */
+  Function<? super A, ? extends K> keyFunction();
+
+}
@@ -0,0 +1,58 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.stream;
+
+import net.sf.roggen.restrictions.check.NonNull;
+
+/**
+ * Class methods for configuring the {@link MetricsSink} used by
+ * {@link Stream#instrument(String)}. Instrumentation is disabled by default.
+ * 
+ * @author flbulgarelli
+ * @since 2.3
+ */
+public final class Instrumentation {
+
+  private static volatile MetricsSink sink;
+
+  private Instrumentation() {}
+
+  /**
+   * Enables instrumentation, making streams instrumented from now on report
+   * their metrics to the given sink
+   * 
+   * @param sink
+   */
+  public static void enable(@NonNull MetricsSink sink) {
+    Instrumentation.sink = sink;
+  }
+
+  /**
+   * Disables instrumentation. Streams instrumented from now on are not
+   * wrapped, so they have no overhead
+   */
+  public static void disable() {
+    sink = null;
+  }
+
+  /**
+   * @return the sink streams report their metrics to, or null, if
+   *         instrumentation is disabled
+   */
+  public static MetricsSink getSink() {
+    return sink;
+  }
+
+}
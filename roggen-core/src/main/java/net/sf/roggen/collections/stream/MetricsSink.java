@@ -0,0 +1,45 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.stream;
+
+/**
+ * A receiver of the {@link StageMetrics} recorded by instrumented
+ * {@link Stream}s.
+ * 
+ * @author flbulgarelli
+ * @since 2.3
+ * @see Stream#instrument(String, MetricsSink)
+ */
+public interface MetricsSink {
+
+  /**
+   * Sent when an iteration of an instrumented stream starts. The given metrics
+   * are updated as the iteration advances, so they can be retained and
+   * inspected later - for example, when the iteration is not exhausted.
+   * 
+   * @param metrics
+   *          the metrics of the new iteration
+   */
+  void iterationStarted(StageMetrics metrics);
+
+  /**
+   * Sent when an iteration of an instrumented stream reaches its end.
+   * 
+   * @param metrics
+   *          the final metrics of the iteration
+   */
+  void iterationFinished(StageMetrics metrics);
+
+}
@@ -0,0 +1,68 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.stream;
+
+/**
+ * The metrics of an iteration of an instrumented {@link Stream}, as recorded
+ * by {@link Stream#instrument(String, MetricsSink)}.
+ * 
+ * Metrics describe the stream that was instrumented - the stage that precedes
+ * the instrumentation point. Elements retrieved by a stage can be compared with
+ * those of the instrumented stream it is built upon, in order to know how many
+ * elements entered and left it. Likewise, the time spent by a stage is the
+ * difference between its times and those of the stage it is built upon.
+ * 
+ * Metrics are updated by the thread that performs the iteration, as it
+ * advances
+ * 
+ * @author flbulgarelli
+ * @since 2.3
+ */
+public interface StageMetrics {
+
+  /**
+   * @return the name of the instrumented stage
+   */
+  String getName();
+
+  /**
+   * @return the number of elements retrieved so far
+   */
+  long getElements();
+
+  /**
+   * @return the nanoseconds spent so far answering if there are more
+   *         elements
+   */
+  long getHasNextNanos();
+
+  /**
+   * @return the nanoseconds spent so far advancing to the next element
+   */
+  long getAdvanceNextNanos();
+
+  /**
+   * @return the nanoseconds spent so far evaluating elements, either directly
+   *         or through their thunks
+   */
+  long getCurrentNanos();
+
+  /**
+   * @return the number of delayed elements - thunks - that have been evaluated
+   *         so far
+   */
+  long getThunkEvaluations();
+
+}
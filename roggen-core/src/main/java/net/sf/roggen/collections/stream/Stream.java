@@ -24,11 +24,15 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 import net.sf.roggen.collections.EmptySourceException;
 import net.sf.roggen.collections.iterable.Iterables;
 import net.sf.roggen.collections.restrictions.Projection;
 import net.sf.roggen.collections.restrictions.Repeatable;
+import net.sf.roggen.collections.stream.primitive.DoubleStream;
+import net.sf.roggen.collections.stream.primitive.IntStream;
+import net.sf.roggen.collections.stream.primitive.LongStream;
 import net.sf.roggen.defs.Applicable;
 import net.sf.roggen.defs.Applicable2;
 import net.sf.roggen.defs.Evaluable;
@@ -40,9 +44,13 @@ import net.sf.roggen.defs.function.Function;
 import net.sf.roggen.defs.function.Function2;
 import net.sf.roggen.defs.partial.ContainsAware;
 import net.sf.roggen.defs.partial.SizeAware;
+import net.sf.roggen.defs.primitive.ToDoubleApplicable;
+import net.sf.roggen.defs.primitive.ToIntApplicable;
+import net.sf.roggen.defs.primitive.ToLongApplicable;
 import net.sf.roggen.defs.reduction.Reduction;
 import net.sf.roggen.defs.tuple.Tuple2;
 import net.sf.roggen.defs.type.NumberType;
+import net.sf.roggen.io.Codec;
 import net.sf.roggen.iterators.thriter.Thriterator;
 import net.sf.roggen.lang.None;
 import net.sf.roggen.lang.Option;
@@ -50,6 +58,7 @@ import net.sf.roggen.lang.Some;
 import net.sf.roggen.lang.tuple.Tuples;
 import net.sf.roggen.restrictions.check.NonNull;
 import net.sf.roggen.restrictions.check.NotNegative;
+import net.sf.roggen.restrictions.check.Positive;
 
 /**
  * A {@link Stream} is a lazy, rich-interfaced, {@link Iterable}, chained
@@ -272,10 +281,39 @@ public interface Stream<A> extends //
   Stream<A> slice(@NotNegative int beginIndex, @NotNegative int endIndex);
   
   //Partitioning and splitting
-// TODO
-//  Tuple2<Stream<A>, Stream<A>> splitBeforeIndex(@NotNegative int position);
-//  
-//  Tuple2<Stream<A>, Stream<A>> splitBefore(A element);
+
+  /**
+   * Splits this stream into two streams: one that retrieves the elements
+   * before the given position, and other that retrieves the rest of them.
+   * 
+   * This stream is read only once, and only the elements before the given
+   * position are memoized, so both streams can be iterated in any order.
+   * 
+   * @param position
+   *          the index of the first element of the second stream
+   * @return a pair of streams that is equivalent to
+   *         {@code _(take(position), drop(position))}
+   * @since 2.3
+   */
+  @Projection
+  Tuple2<Stream<A>, Stream<A>> splitBeforeIndex(@NotNegative int position);
+
+  /**
+   * Splits this stream into two streams: one that retrieves the elements
+   * before the first occurrence of the given one, and other that retrieves the
+   * rest of them, starting with that occurrence.
+   * 
+   * This stream is read only once, and only the elements up to that occurrence
+   * are memoized, so both streams can be iterated in any order.
+   * 
+   * @param element
+   *          the first element of the second stream. It may be null
+   * @return a pair of streams that is equivalent to
+   *         {@code _(takeWhile(notEqual(element)), dropWhile(notEqual(element)))}
+   * @since 2.3
+   */
+  @Projection
+  Tuple2<Stream<A>, Stream<A>> splitBefore(A element);
 //  
   /***
    * Splits stream elements into two lists using a predicate - elements that
@@ -329,6 +367,45 @@ public interface Stream<A> extends //
   @Projection
   <B> Stream<B> map(@NonNull Function<? super A, ? extends B> function);
 
+  /**
+   * Transforms each element into an {@code int} using the given function,
+   * without boxing the results
+   * 
+   * @param function
+   *          the mapper used to transform each element
+   * @return a new {@link IntStream} that will retrieve the result of applying
+   *         the given function to each element
+   * @since 2.3
+   */
+  @NonNull
+  IntStream mapToInt(@NonNull ToIntApplicable<? super A> function);
+
+  /**
+   * Transforms each element into an {@code long} using the given function,
+   * without boxing the results
+   * 
+   * @param function
+   *          the mapper used to transform each element
+   * @return a new {@link LongStream} that will retrieve the result of applying
+   *         the given function to each element
+   * @since 2.3
+   */
+  @NonNull
+  LongStream mapToLong(@NonNull ToLongApplicable<? super A> function);
+
+  /**
+   * Transforms each element into an {@code double} using the given function,
+   * without boxing the results
+   * 
+   * @param function
+   *          the mapper used to transform each element
+   * @return a new {@link DoubleStream} that will retrieve the result of applying
+   *         the given function to each element
+   * @since 2.3
+   */
+  @NonNull
+  DoubleStream mapToDouble(@NonNull ToDoubleApplicable<? super A> function);
+
   // FlatMapping
 
   /**
@@ -362,7 +439,9 @@ public interface Stream<A> extends //
    * the inverse order of this Stream.
    * 
    * This may not be a {@link Projection}, depending on if the stream's source
-   * permits it.
+   * permits it. Streams with constant-time random access - like those built
+   * from arrays, lists or char sequences - answer a lazy reversed view,
+   * without copying their elements.
    * 
    * @return a new {@link Stream} that retrieves elements in the inverse order
    *         of this stream.
@@ -516,6 +595,25 @@ public interface Stream<A> extends //
    */
   <K> Option<A> lookupOrNone(K key, @NonNull Function<? super A, ? extends K> function);
 
+  /**
+   * Answers a view of this stream that indexes its elements by the key
+   * computed by the given {@code function}, so that lookups by key take
+   * constant time instead of traversing this stream.
+   * <p>
+   * The index is built once, the first time it is needed, over a memoized
+   * version of this stream. {@link #lookup(Object, Function)} and
+   * {@link #lookupOrNone(Object, Function)} use the index when they are sent
+   * with a function equal to the given one.
+   * </p>
+   * 
+   * @param function
+   *          the function to compute each element's key
+   * @return a new {@link IndexedStream}
+   * @since 2.3
+   */
+  @Repeatable
+  <K> IndexedStream<K, A> indexOn(@NonNull Function<? super A, ? extends K> function);
+
   // Testing
 
   /**
@@ -749,6 +847,10 @@ public interface Stream<A> extends //
    * Answers the result of aggregating this stream using the given
    * <code>reduction</code>
    * 
+   * If this stream is {@link #parallel(ExecutorService)} and the reduction is a
+   * {@link net.sf.roggen.defs.reduction.MergeableReduction}, chunks are
+   * reduced in parallel and their accumulators merged in order.
+   * 
    * @param reduction
    * @return the folding result
    * @since 1.2
@@ -830,6 +932,47 @@ public interface Stream<A> extends //
   @Projection
   Stream<A> sortBy(@NonNull Comparator<A> comparator);
 
+  /**
+   * Sorts this Stream, using the given comparator, without keeping all its
+   * elements in memory. This stream is read in runs of at most
+   * {@code runSize} elements, that are sorted and written to temporary files
+   * using the given codec, and then merged lazily during iteration. Only a
+   * bounded number of runs is merged at once, so many runs are first merged
+   * into intermediate temporary files.
+   * 
+   * This is useful for sorting streams that do not fit in memory, and it is
+   * stable, like {@link #sortBy(Comparator)}.
+   * 
+   * @param comparator
+   * @param codec
+   *          the {@link Codec} used to write and read elements to and from
+   *          temporary files
+   * @param runSize
+   *          the maximum number of elements that are sorted in memory at once
+   * @return a new {@link Stream}
+   * @since 2.3
+   */
+  @Projection
+  Stream<A> sortBy(@NonNull Comparator<A> comparator, @NonNull Codec<A> codec, @NotNegative int runSize);
+
+  /**
+   * Answers the first {@code k} elements of this stream, in the order given by
+   * the comparator, without sorting the whole stream. Elements that are equal
+   * according to the comparator keep their relative order.
+   * 
+   * This is more efficient than a full sort when {@code k} is much smaller than
+   * the size of this stream, as it takes O(n log k) time and O(k) space.
+   * 
+   * @param k
+   *          the number of elements to select
+   * @param comparator
+   * @return a new {@link Stream} equivalent to
+   *         {@code sortBy(comparator).take(k)}
+   * @since 2.3
+   */
+  @Projection
+  Stream<A> topK(@NotNegative int k, @NonNull Comparator<? super A> comparator);
+
   /**
    * Sorts this Stream, using <code>Compare.on(function)</code> as comparator
    * 
@@ -929,6 +1072,10 @@ public interface Stream<A> extends //
    * As a particular case, if this Stream is infinite, the resulting Stream will
    * retrieve the same elements than this one.
    * 
+   * If <code>other</code> is a {@link Stream}, the resulting Stream is
+   * repeatable as long as both streams are, and nested concatenations are
+   * evaluated without growing the call stack.
+   * 
    * @param other
    * @return a new {@link Stream}
    * @since 2.2
@@ -1412,23 +1559,119 @@ public interface Stream<A> extends //
   @Repeatable
   @Projection
   Stream<A> memoize();
+
+  /**
+   * Memoizes stream elements and their order, like {@link #memoize()}, but
+   * answering a stream that can be iterated by many threads at the same time.
+   *
+   * Elements already memoized are retrieved without locking, and this stream
+   * is only read by a single thread at a time, and only once.
+   *
+   * @return a new thread-safe {@link Stream} that memoizes elements evaluated
+   *         during iteration
+   * @since 2.3
+   */
+  @Repeatable
+  @Projection
+  Stream<A> concurrentMemoize();
   
-//  TODO  
-//  /**
-//   * <a href="http://en.wikipedia.org/wiki/Memoization">Memoizes</a> the given
-//   * number of initial stream elements and their order, by answering a lazy
-//   * stream with {@link Repeatable} iteration order up to position
-//   * {@code numberOfElements - 1}
-//   * 
-//   * 
-//   * @param numberOfElements
-//   *          the number of initial elements to memoize. If this number is
-//   *          greather than stream size, all stream elements are memoized
-//   * @return a new {@link Stream} that memoizes the first
-//   *         {@code numberOfElements} elements evaluated during iteration
-//   * @since 2.3
-//   */
-//  Stream<A> memoize(int numberOfElements);
+  /**
+   * <a href="http://en.wikipedia.org/wiki/Memoization">Memoizes</a> the given
+   * number of initial stream elements and their order, by answering a lazy
+   * stream with {@link Repeatable} iteration order up to position
+   * {@code numberOfElements - 1}. Elements after that position are not
+   * memoized: they are read again from this stream on each iteration, if it
+   * is repeatable, and shared by all the iterators of the answered stream
+   * otherwise.
+   * 
+   * 
+   * @param numberOfElements
+   *          the number of initial elements to memoize. If this number is
+   *          greather than stream size, all stream elements are memoized
+   * @return a new {@link Stream} that memoizes the first
+   *         {@code numberOfElements} elements evaluated during iteration
+   * @since 2.3
+   */
+  @Projection
+  Stream<A> memoize(@NotNegative int numberOfElements);
+
+  /**
+   * Answers a {@link Stream} that retrieves the same elements than this one,
+   * but that evaluates its stateless transformations -
+   * {@link #map(Function)} and {@link #filter(Evaluable)} - and its
+   * associative reductions - like {@link #toList()},
+   * {@link #reduce(Applicable2)}, {@link #sum(NumberType)}, and also
+   * {@link #reduce(Reduction)} and {@link #groupOn(Applicable, Reduction)}
+   * when the reduction is a
+   * {@link net.sf.roggen.defs.reduction.MergeableReduction} - by splitting
+   * this stream into contiguous chunks that are processed by the given
+   * executor. Partial results are combined in order, so that results are the
+   * same than those of the sequential evaluation.
+   * 
+   * Only streams that support constant-time splitting - like those built from
+   * arrays, lists, char sequences or {@link Streams#enumerate(int, int)} -
+   * are evaluated in parallel. Otherwise, this stream is returned.
+   * 
+   * @param executor
+   *          the executor where chunks are evaluated
+   * @return a parallel {@link Stream}, or this stream, if it can not be split
+   * @since 2.3
+   */
+  @Projection
+  Stream<A> parallel(@NonNull ExecutorService executor);
+
+  /**
+   * Answers a {@link Stream} that retrieves the same elements than this one,
+   * but that retrieves them in advance, in a task submitted to the given
+   * executor, which stores up to <code>bufferSize</code> elements that have
+   * not been consumed yet.
+   * 
+   * This is useful for streams whose elements are expensive to retrieve but
+   * cheap to store - like those built by {@link net.sf.roggen.io.IOStreams} -
+   * so that retrieving elements overlaps with processing them. Exceptions
+   * thrown by this stream are rethrown when the element that caused them is
+   * consumed.
+   * 
+   * Each iteration submits its own task, which releases its executor thread
+   * while the buffer stays full, and stops when the iteration is abandoned.
+   * 
+   * @param bufferSize
+   *          the maximum number of elements retrieved in advance. Must be
+   *          positive
+   * @param executor
+   *          the executor where this stream is iterated
+   * @return a new {@link Stream}
+   * @since 2.3
+   */
+  @Projection
+  Stream<A> prefetch(int bufferSize, @NonNull ExecutorService executor);
+
+  /**
+   * Answers a {@link Stream} that retrieves the result of applying the given
+   * function to each element of this one, like {@link #map(Applicable)}, but
+   * that applies it in tasks submitted to the given executor, so that up to
+   * <code>maxInFlight</code> elements are transformed concurrently. Results
+   * are retrieved in the order of this stream.
+   * 
+   * The resulting stream is lazy: elements of this stream are only submitted
+   * when a result is requested, and it never holds more than
+   * <code>maxInFlight</code> pending results. Exceptions thrown by the
+   * function are rethrown when the result that caused them is requested.
+   * 
+   * @param <B>
+   * @param function
+   *          the function to apply. It must be thread safe
+   * @param executor
+   *          the executor where the function is applied
+   * @param maxInFlight
+   *          the maximum number of elements transformed concurrently. Must be
+   *          positive
+   * @return a new {@link Stream}
+   * @since 2.3
+   */
+  @Projection
+  <B> Stream<B> mapConcurrent(@NonNull Applicable<? super A, ? extends B> function,
+    @NonNull ExecutorService executor, int maxInFlight);
 
   /**
    * Forces stream elements evaluation by converting it into a new ordered
@@ -1441,6 +1684,43 @@ public interface Stream<A> extends //
   @Repeatable
   Stream<A> force();
 
+  // Instrumenting
+
+  /**
+   * Answers a {@link Stream} that retrieves the same elements than this one,
+   * but that records the metrics of each of its iterations - the number of
+   * retrieved elements, the time spent retrieving and evaluating them, and the
+   * number of thunk evaluations - and reports them to the given sink.
+   * 
+   * Instrumenting a pipeline after each of its stages allows to know which of
+   * them is the most expensive one, by comparing the {@link StageMetrics} of
+   * consecutive instrumented streams.
+   * 
+   * @param name
+   *          the name of the stage, used to identify its metrics
+   * @param sink
+   *          the sink metrics are reported to
+   * @return a new {@link Stream}
+   * @since 2.3
+   */
+  @Projection
+  Stream<A> instrument(@NonNull String name, @NonNull MetricsSink sink);
+
+  /**
+   * Instruments this stream using the sink configured through
+   * {@link Instrumentation#enable(MetricsSink)}, as
+   * {@link #instrument(String, MetricsSink)} does. If instrumentation is
+   * disabled when this message is sent, this stream is returned, so that
+   * pipelines that are instrumented but not enabled have no overhead.
+   * 
+   * @param name
+   *          the name of the stage, used to identify its metrics
+   * @return a new {@link Stream}, or this one, if instrumentation is disabled
+   * @since 2.3
+   */
+  @Projection
+  Stream<A> instrument(@NonNull String name);
+
   // Interscalating
 
   /**
@@ -1508,6 +1788,172 @@ public interface Stream<A> extends //
   @NonNull
   <K, V> Map<K, V> groupOn(Applicable<? super A, K> groupFunction, Reduction<A, V> reduction);
 
+  // Windowing
+
+  /**
+   * Answers a stream of the windows of {@code size} consecutive elements of
+   * this stream, each one starting {@code step} elements after the previous
+   * one. Only complete windows are retrieved. For example:
+   * 
+   * <pre>
+   * Streams.cons(1, 2, 3, 4, 5).window(3, 1).equiv(asList(1, 2, 3), asList(2, 3, 4), asList(3, 4, 5));
+   * Streams.cons(1, 2, 3, 4, 5).window(2, 3).equiv(asList(1, 2), asList(4, 5));
+   * </pre>
+   * 
+   * Windows are unmodifiable random access lists that share a buffer with the
+   * windows that overlap them, instead of copying their elements.
+   * 
+   * @param size
+   *          the number of elements of each window. It must be positive
+   * @param step
+   *          the distance between the first elements of two consecutive
+   *          windows. It must be positive
+   * @return a new {@link Stream}
+   * @since 2.3
+   */
+  @Projection
+  Stream<List<A>> window(@Positive int size, @Positive int step);
+
+  /**
+   * Answers a stream of consecutive, non overlapping, chunks of {@code size}
+   * elements of this stream. The last chunk may be smaller. For example:
+   * 
+   * <pre>
+   * Streams.cons(1, 2, 3, 4, 5).batch(2).equiv(asList(1, 2), asList(3, 4), asList(5));
+   * </pre>
+   * 
+   * @param size
+   *          the number of elements of each chunk. It must be positive
+   * @return a new {@link Stream} of unmodifiable random access lists
+   * @since 2.3
+   */
+  @Projection
+  Stream<List<A>> batch(@Positive int size);
+
+  /**
+   * Answers a stream of the sums of each window of {@code size} consecutive
+   * elements of this stream. Sums are computed incrementally, subtracting the
+   * element that leaves the window instead of summing the whole window again.
+   * For example:
+   * 
+   * <pre>
+   * Streams.cons(1, 2, 3, 4, 5).slidingSum(3, integer()).equiv(6, 9, 12);
+   * </pre>
+   * 
+   * @param size
+   *          the number of elements of each window. It must be positive
+   * @param numberType
+   * @return a new {@link Stream}
+   * @since 2.3
+   */
+  @Projection
+  Stream<A> slidingSum(@Positive int size, @NonNull NumberType<A> numberType);
+
+  /**
+   * Answers a stream of the number of elements that satisfy the given
+   * {@code predicate} in each window of {@code size} consecutive elements of
+   * this stream. Counts are computed incrementally, as in
+   * {@link #slidingSum(int, NumberType)}
+   * 
+   * @param size
+   *          the number of elements of each window. It must be positive
+   * @param predicate
+   * @return a new {@link Stream}
+   * @since 2.3
+   */
+  @Projection
+  Stream<Integer> slidingCountOf(@Positive int size, @NonNull Evaluable<? super A> predicate);
+
+  // Joining
+
+  /**
+   * Answers the pairs of elements of this stream and the given one whose keys
+   * are equal - an inner equi-join. For each element of this stream, in order,
+   * its matching elements of {@code other} are retrieved in their order.
+   * <p>
+   * This is a hash join: {@code other} is indexed once, using
+   * {@link #indexOn(Function)}, and each element of this stream is looked up
+   * in it, so it takes O(n + m) time, and memory proportional to the size of
+   * {@code other}, which should thus be the smaller stream. If {@code other} is
+   * an {@link IndexedStream} on an equal key function, its index is reused.
+   * </p>
+   * 
+   * @param other
+   *          the stream to index
+   * @param keyFunction
+   *          the function to compute the keys of elements of this stream
+   * @param otherKeyFunction
+   *          the function to compute the keys of elements of {@code other}
+   * @return a new {@link Stream}
+   * @since 2.3
+   */
+  @Projection
+  <B, K> Stream<Tuple2<A, B>> join(@NonNull Stream<B> other, @NonNull Function<? super A, ? extends K> keyFunction,
+    @NonNull Function<? super B, ? extends K> otherKeyFunction);
+
+  /**
+   * Answers the pairs of elements of this stream and the given one whose keys
+   * are equal, as {@link #join(Stream, Function, Function)} does, but also
+   * answers the elements of this stream that have no matching element, paired
+   * with {@link Option#none()} - a left outer equi-join.
+   * 
+   * @param other
+   *          the stream to index
+   * @param keyFunction
+   *          the function to compute the keys of elements of this stream
+   * @param otherKeyFunction
+   *          the function to compute the keys of elements of {@code other}
+   * @return a new {@link Stream}
+   * @since 2.3
+   */
+  @Projection
+  <B, K> Stream<Tuple2<A, Option<B>>> leftJoin(@NonNull Stream<B> other,
+    @NonNull Function<? super A, ? extends K> keyFunction, @NonNull Function<? super B, ? extends K> otherKeyFunction);
+
+  /**
+   * Answers the elements of this stream whose key is equal to the key of any
+   * element of the given one - a semi-join. {@code other} is hashed as in
+   * {@link #join(Stream, Function, Function)}
+   * 
+   * @param other
+   *          the stream to index
+   * @param keyFunction
+   *          the function to compute the keys of elements of this stream
+   * @param otherKeyFunction
+   *          the function to compute the keys of elements of {@code other}
+   * @return a new {@link Stream}
+   * @since 2.3
+   */
+  @Projection
+  <B, K> Stream<A> semiJoin(@NonNull Stream<B> other, @NonNull Function<? super A, ? extends K> keyFunction,
+    @NonNull Function<? super B, ? extends K> otherKeyFunction);
+
+  /**
+   * Answers the pairs of elements of this stream and the given one whose keys
+   * are equal, like {@link #join(Stream, Function, Function)}, but assuming both
+   * streams are sorted by key according to the given comparator. This is a
+   * merge join: both streams are traversed once, in a single pass, and only
+   * the elements of {@code other} that share the current key are kept in
+   * memory.
+   * 
+   * If any of the streams is not sorted, the result is undefined.
+   * 
+   * @param other
+   *          a stream sorted by {@code otherKeyFunction}
+   * @param keyFunction
+   *          the function to compute the keys of elements of this stream
+   * @param otherKeyFunction
+   *          the function to compute the keys of elements of {@code other}
+   * @param comparator
+   *          the order of keys
+   * @return a new {@link Stream}
+   * @since 2.3
+   */
+  @Projection
+  <B, K> Stream<Tuple2<A, B>> mergeJoin(@NonNull Stream<B> other,
+    @NonNull Function<? super A, ? extends K> keyFunction, @NonNull Function<? super B, ? extends K> otherKeyFunction,
+    @NonNull Comparator<? super K> comparator);
+
   // Cartesian product
 
   /**
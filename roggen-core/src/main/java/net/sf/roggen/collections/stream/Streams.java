@@ -28,6 +28,7 @@ import net.sf.roggen.collections.stream.internal.CharSequenceStream;
 import net.sf.roggen.collections.stream.internal.CollectionStream;
 import net.sf.roggen.collections.stream.internal.DequeStream;
 import net.sf.roggen.collections.stream.internal.EmptyStream;
+import net.sf.roggen.collections.stream.internal.EnumerateStream;
 import net.sf.roggen.collections.stream.internal.IterableStream;
 import net.sf.roggen.collections.stream.internal.IteratorStream;
 import net.sf.roggen.collections.stream.internal.ListStream;
@@ -225,7 +226,7 @@ public class Streams {
    */
   @Projection
   public static Stream<Integer> enumerate(int start, int stop, int step) {
-    return iterate(start, Add.add(step)).take(Math.max(0, 1 + (stop - start) / step));
+    return new EnumerateStream(start, step, Math.max(0, 1 + (stop - start) / step));
   }
 
   // @Projection
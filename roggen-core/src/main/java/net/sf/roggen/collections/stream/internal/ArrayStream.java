@@ -26,15 +26,21 @@
  */
 package net.sf.roggen.collections.stream.internal;
 
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+
+import net.sf.roggen.collections.stream.Stream;
+import net.sf.roggen.collections.stream.internal.algorithms.ParallelStream;
 import net.sf.roggen.iterators.thriter.Thriterator;
 import net.sf.roggen.iterators.thriter.Thriterators;
 import net.sf.roggen.restrictions.check.NonNull;
+import net.sf.roggen.restrictions.check.NotNegative;
 
 /**
  * @author flbulgarelli
  * 
  */
-public class ArrayStream<A> extends StrictStream<A> {
+public class ArrayStream<A> extends StrictStream<A> implements RandomAccessAware {
 
   private final A[] array;
 
@@ -65,4 +71,20 @@ public class ArrayStream<A> extends StrictStream<A> {
     return array[array.length - 1];
   }
 
+  public Stream<A> take(@NotNegative int amountOfElements) {
+    return new ListStream<A>(Arrays.asList(array).subList(0, atMost(amountOfElements)));
+  }
+
+  public Stream<A> drop(@NotNegative int amountOfElements) {
+    return new ListStream<A>(Arrays.asList(array).subList(atMost(amountOfElements), size()));
+  }
+
+  public boolean isRandomAccess() {
+    return true;
+  }
+
+  public Stream<A> parallel(@NonNull ExecutorService executor) {
+    return ParallelStream.from(this, executor);
+  }
+
 }
@@ -14,7 +14,10 @@
 
 package net.sf.roggen.collections.stream.internal;
 
+import java.util.concurrent.ExecutorService;
+
 import net.sf.roggen.collections.stream.Stream;
+import net.sf.roggen.collections.stream.internal.algorithms.ParallelStream;
 import net.sf.roggen.iterators.CharSequenceThriterator;
 import net.sf.roggen.iterators.thriter.Thriterator;
 import net.sf.roggen.restrictions.check.NonNull;
@@ -27,7 +30,7 @@ import net.sf.roggen.restrictions.processing.IgnoreRestrictions;
  * 
  */
 @EnforceRestrictions
-public final class CharSequenceStream extends StrictStream<Character> {
+public final class CharSequenceStream extends StrictStream<Character> implements RandomAccessAware {
   private final CharSequence charSequence;
 
   /**
@@ -58,4 +61,12 @@ public final class CharSequenceStream extends StrictStream<Character> {
     return new CharSequenceStream(charSequence.subSequence(atMost(amountOfElements), size()));
   }
 
-}
\ No newline at end of file
+  public boolean isRandomAccess() {
+    return true;
+  }
+
+  public Stream<Character> parallel(@NonNull ExecutorService executor) {
+    return ParallelStream.from(this, executor);
+  }
+
+}
@@ -59,7 +59,7 @@ public class CollectionStream<A> extends StrictStream<A> {
   }
 
   @Override
-  public final Thriterator<A> iterator() {
+  public Thriterator<A> iterator() {
     return Thriterators.from(collection.iterator());
   }
 
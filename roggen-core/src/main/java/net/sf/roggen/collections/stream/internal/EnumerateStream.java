@@ -0,0 +1,105 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.stream.internal;
+
+import static net.sf.roggen.collections.iterable.internal.IterablesInternal.*;
+
+import java.util.concurrent.ExecutorService;
+
+import net.sf.roggen.collections.stream.Stream;
+import net.sf.roggen.collections.stream.internal.algorithms.ParallelStream;
+import net.sf.roggen.iterators.IndexedThriterator;
+import net.sf.roggen.iterators.thriter.Thriterator;
+import net.sf.roggen.restrictions.check.NonNull;
+import net.sf.roggen.restrictions.check.NotNegative;
+
+/**
+ * A finite arithmetic progression of integers, that computes its elements
+ * instead of storing them
+ *
+ * @author flbulgarelli
+ *
+ */
+public final class EnumerateStream extends StrictStream<Integer> implements RandomAccessAware {
+
+  private final int start;
+  private final int step;
+  private final int size;
+
+  /**
+   * Creates a new {@link EnumerateStream}
+   *
+   * @param start
+   *          the first element
+   * @param step
+   *          the difference between consecutive elements
+   * @param size
+   *          the number of elements
+   */
+  public EnumerateStream(int start, int step, @NotNegative int size) {
+    this.start = start;
+    this.step = step;
+    this.size = size;
+  }
+
+  public Thriterator<Integer> iterator() {
+    return new IndexedThriterator<Integer>() {
+      protected Integer elementAt(int position) {
+        return get(position);
+      }
+
+      protected int length() {
+        return size;
+      }
+    };
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public Integer get(int n) {
+    if (n < 0 || n >= size)
+      throw new IndexOutOfBoundsException("At " + n);
+    return start + n * step;
+  }
+
+  public Integer last() {
+    checkNotEmpty(this);
+    return get(size - 1);
+  }
+
+  public Stream<Integer> take(@NotNegative int amountOfElements) {
+    return new EnumerateStream(start, step, atMost(amountOfElements));
+  }
+
+  public Stream<Integer> drop(@NotNegative int amountOfElements) {
+    int dropped = atMost(amountOfElements);
+    return new EnumerateStream(start + dropped * step, step, size - dropped);
+  }
+
+  public boolean isRandomAccess() {
+    return true;
+  }
+
+  public Stream<Integer> parallel(@NonNull ExecutorService executor) {
+    return ParallelStream.from(this, executor);
+  }
+
+}
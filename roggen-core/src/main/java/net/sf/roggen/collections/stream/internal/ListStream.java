@@ -15,8 +15,13 @@
 package net.sf.roggen.collections.stream.internal;
 
 import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ExecutorService;
 
 import net.sf.roggen.collections.stream.Stream;
+import net.sf.roggen.collections.stream.internal.algorithms.ParallelStream;
+import net.sf.roggen.iterators.ListThriterator;
+import net.sf.roggen.iterators.thriter.Thriterator;
 import net.sf.roggen.restrictions.check.NonNull;
 import net.sf.roggen.restrictions.check.NotNegative;
 import net.sf.roggen.restrictions.processing.EnforceRestrictions;
@@ -29,7 +34,7 @@ import net.sf.roggen.restrictions.processing.IgnoreRestrictions;
  * @param <A>
  */
 @EnforceRestrictions
-public class ListStream<A> extends CollectionStream<A> {
+public class ListStream<A> extends CollectionStream<A> implements RandomAccessAware {
 
   /**
    * Creates a new {@link ListStream}
@@ -42,6 +47,13 @@ public class ListStream<A> extends CollectionStream<A> {
     super(iterable);
   }
 
+  @Override
+  public Thriterator<A> iterator() {
+    if (getList() instanceof RandomAccess)
+      return new ListThriterator<A>(getList());
+    return super.iterator();
+  }
+
   @Override
   public final A get(int n) {
     return getList().get(n);
@@ -70,4 +82,14 @@ public class ListStream<A> extends CollectionStream<A> {
     return new ListStream<A>(getList().subList(atMost(amountOfElements), size()));
   }
 
-}
\ No newline at end of file
+  public boolean isRandomAccess() {
+    return getList() instanceof RandomAccess;
+  }
+
+  public Stream<A> parallel(@NonNull ExecutorService executor) {
+    if (!isRandomAccess())
+      return this;
+    return ParallelStream.from(this, executor);
+  }
+
+}
@@ -0,0 +1,36 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.stream.internal;
+
+import net.sf.roggen.collections.stream.Stream;
+
+/**
+ * Interface for {@link Stream}s that may know if their elements can be
+ * retrieved by index, and their size computed, in constant time.
+ *
+ * @author flbulgarelli
+ *
+ */
+public interface RandomAccessAware {
+
+  /**
+   * Answers if {@link Stream#get(int)} and {@link Stream#size()} are
+   * constant-time operations for this stream
+   *
+   * @return if this stream supports fast random access
+   */
+  boolean isRandomAccess();
+
+}
@@ -15,8 +15,13 @@
 
 package net.sf.roggen.collections.stream.internal;
 
+import net.sf.roggen.collections.internal.iterator.FusedIterator;
 import net.sf.roggen.collections.stream.AbstractStream;
 import net.sf.roggen.collections.stream.Stream;
+import net.sf.roggen.collections.stream.internal.algorithms.FusedStream;
+import net.sf.roggen.defs.Evaluable;
+import net.sf.roggen.restrictions.check.NonNull;
+import net.sf.roggen.restrictions.check.NotNegative;
 
 /**
  * @author flbulgarelli
@@ -29,11 +34,36 @@ public abstract class StrictStream<A> extends AbstractStream<A> {
     return this;
   }
 
+  @Override
+  public final Stream<A> memoize(int numberOfElements) {
+    return this;
+  }
+
+  @Override
+  public Stream<A> concurrentMemoize() {
+    return this;
+  }
+
   @Override
   public final Stream<A> force() {
     return this;
   }
 
+  @Override
+  public Stream<A> filter(@NonNull Evaluable<? super A> predicate) {
+    return new FusedStream<A>(this, FusedIterator.FILTER, predicate, 0);
+  }
+
+  @Override
+  public Stream<A> takeWhile(@NonNull Evaluable<? super A> predicate) {
+    return new FusedStream<A>(this, FusedIterator.TAKE_WHILE, predicate, 0);
+  }
+
+  @Override
+  public Stream<A> drop(@NotNegative int amountOfElements) {
+    return new FusedStream<A>(this, FusedIterator.DROP, null, amountOfElements);
+  }
+
   protected int atMost(int amountOfElements) {
     return Math.min(amountOfElements, size());
   }
@@ -25,6 +25,15 @@ import net.sf.roggen.iterators.thriter.Thriterator;
 import net.sf.roggen.restrictions.check.NonNull;
 
 /**
+ * A {@link Stream} whose elements are computed by applying a transformation
+ * to another one, the first time they are needed.
+ * 
+ * Transformations are usually defined recursively, answering a stream that
+ * prepends some elements to - or concatenates some streams with - the
+ * transformation of the rest of the source. Such streams are iterated using a
+ * {@link TrampolineThriterator}, so they are evaluated in constant stack,
+ * instead of building a chain of nested iterators.
+ * 
  * @author flbulgarelli
  */
 public abstract class AbstractTransformStream<A, B> extends AbstractStream<B> {
@@ -41,39 +50,56 @@ public abstract class AbstractTransformStream<A, B> extends AbstractStream<B> {
 
   @Override
   public final Thriterator<B> iterator() {
-    return applyCached().iterator();
+    return new TrampolineThriterator<B>(this);
   }
 
   @Override
   public final B get(int n) {
-    return applyCached().get(n);
+    Stream<B> result = resolve();
+    return TrampolineThriterator.isRecursive(result) ? super.get(n) : result.get(n);
   }
 
   @Override
   public final Tuple2<Thunk<B>, Stream<B>> delayedDecons() {
-    return applyCached().delayedDecons();
+    return resolve().delayedDecons();
   }
 
   @Override
   public final boolean isEmpty() {
-    return applyCached().isEmpty();
+    return resolve().isEmpty();
   }
 
   public final int size() {
-    return applyCached().size();
+    Stream<B> result = resolve();
+    return TrampolineThriterator.isRecursive(result) ? super.size() : result.size();
   }
 
   @Override
   public final List<B> toList() {
-    return applyCached().toList();
+    Stream<B> result = resolve();
+    return TrampolineThriterator.isRecursive(result) ? super.toList() : result.toList();
   }
 
-  private Stream<B> applyCached() {
+  /**
+   * Answers the result of applying the transformation, computing it only once
+   */
+  final Stream<B> applyCached() {
     if (streamCached == null)
       streamCached = apply();
     return streamCached;
   }
 
+  /**
+   * Answers the result of applying the transformation, and the transformations
+   * it may answer, until the result is not an {@link AbstractTransformStream}
+   */
+  private Stream<B> resolve() {
+    Stream<B> result = applyCached();
+    while (result instanceof AbstractTransformStream)
+      result = ((AbstractTransformStream<?, B>) result).applyCached();
+    return result;
+  }
+
   protected abstract Stream<B> apply();
 
   /**
@@ -0,0 +1,85 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.stream.internal.algorithms;
+
+/**
+ * An append-only sequence of elements, stored in arrays - chunks - whose size
+ * doubles, starting at {@value #FIRST_CHUNK_SIZE}. Chunks are never copied nor
+ * resized, so appending is constant time, and elements are accessed by index
+ * without following links.
+ * 
+ * @author flbulgarelli
+ * 
+ */
+public final class ChunkedArray {
+
+  private static final int FIRST_CHUNK_BITS = 4;
+  private static final int FIRST_CHUNK_SIZE = 1 << FIRST_CHUNK_BITS;
+
+  private Object[][] chunks = new Object[4][];
+  private int size;
+
+  /**
+   * Adds an element at the end of this array
+   * 
+   * @param element
+   */
+  public void add(Object element) {
+    int chunk = chunkOf(size);
+    if (chunk == chunks.length) {
+      Object[][] newChunks = new Object[chunks.length * 2][];
+      System.arraycopy(chunks, 0, newChunks, 0, chunks.length);
+      chunks = newChunks;
+    }
+    if (chunks[chunk] == null)
+      chunks[chunk] = new Object[FIRST_CHUNK_SIZE << chunk];
+    chunks[chunk][offsetOf(size, chunk)] = element;
+    size++;
+  }
+
+  /**
+   * Answers the element at the given index, which must be lower than
+   * {@link #size()}
+   */
+  public Object get(int index) {
+    int chunk = chunkOf(index);
+    return chunks[chunk][offsetOf(index, chunk)];
+  }
+
+  /**
+   * Replaces the element at the given index, which must be lower than
+   * {@link #size()}
+   */
+  public void set(int index, Object element) {
+    int chunk = chunkOf(index);
+    chunks[chunk][offsetOf(index, chunk)] = element;
+  }
+
+  /**
+   * @return the number of elements of this array
+   */
+  public int size() {
+    return size;
+  }
+
+  private static int chunkOf(int index) {
+    return 31 - Integer.numberOfLeadingZeros(index + FIRST_CHUNK_SIZE) - FIRST_CHUNK_BITS;
+  }
+
+  private static int offsetOf(int index, int chunk) {
+    return index + FIRST_CHUNK_SIZE - (FIRST_CHUNK_SIZE << chunk);
+  }
+
+}
@@ -0,0 +1,66 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.stream.internal.algorithms;
+
+import net.sf.roggen.collections.stream.AbstractStream;
+import net.sf.roggen.collections.stream.Stream;
+import net.sf.roggen.iterators.thriter.Thriterator;
+import net.sf.roggen.restrictions.check.NonNull;
+
+/**
+ * A {@link Stream} that retrieves the elements of a stream, followed by the
+ * elements of another one. The second stream is not iterated until the first
+ * one is exhausted.
+ * 
+ * @author flbulgarelli
+ * 
+ * @param <A>
+ */
+public final class ConcatStream<A> extends AbstractStream<A> {
+
+  private final Stream<A> first;
+  private final Stream<A> second;
+
+  /**
+   * Creates a new {@link ConcatStream}
+   */
+  public ConcatStream(@NonNull Stream<A> first, @NonNull Stream<A> second) {
+    this.first = first;
+    this.second = second;
+  }
+
+  public Thriterator<A> iterator() {
+    return new TrampolineThriterator<A>(this);
+  }
+
+  public boolean isEmpty() {
+    return !iterator().hasNext();
+  }
+
+  /**
+   * @return the stream whose elements are retrieved first
+   */
+  public Stream<A> getFirst() {
+    return first;
+  }
+
+  /**
+   * @return the stream whose elements are retrieved after the first one's
+   */
+  public Stream<A> getSecond() {
+    return second;
+  }
+
+}
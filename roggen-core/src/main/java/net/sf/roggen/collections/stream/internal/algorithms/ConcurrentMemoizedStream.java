@@ -0,0 +1,117 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.stream.internal.algorithms;
+
+import java.util.NoSuchElementException;
+
+import net.sf.roggen.collections.stream.AbstractStream;
+import net.sf.roggen.collections.stream.Stream;
+import net.sf.roggen.iterators.thriter.AdvanceThriterator;
+import net.sf.roggen.iterators.thriter.Thriterator;
+import net.sf.roggen.restrictions.check.NonNull;
+
+/**
+ * A memoized {@link Stream} that can be shared between threads. Elements are
+ * cached in a single linked list whose cells are published through volatile
+ * links, so that readers iterate the already cached prefix without locking.
+ * Only a reader that reaches the end of the prefix reads the source, holding a
+ * lock, so the source is always read by a single producer.
+ *
+ * Cached elements are evaluated when read, instead of being delayed, so that
+ * each element of the source is evaluated exactly once.
+ *
+ * @author flbulgarelli
+ *
+ * @param <A>
+ */
+public final class ConcurrentMemoizedStream<A> extends AbstractStream<A> {
+
+  private final Cell<A> head = new Cell<A>(null);
+  private final Thriterator<A> source;
+  private volatile boolean exhausted;
+
+  /**
+   * Creates a new {@link ConcurrentMemoizedStream}
+   *
+   * @param source
+   *          the thriterator to memoize. It must not be accessed by any other
+   *          object
+   */
+  public ConcurrentMemoizedStream(@NonNull Thriterator<A> source) {
+    this.source = source;
+  }
+
+  @Override
+  public Stream<A> memoize() {
+    return this;
+  }
+
+  @Override
+  public Stream<A> memoize(int numberOfElements) {
+    return this;
+  }
+
+  @Override
+  public Stream<A> concurrentMemoize() {
+    return this;
+  }
+
+  @Override
+  public Thriterator<A> iterator() {
+    return new AdvanceThriterator<A>() {
+      private Cell<A> cell = head;
+
+      public boolean hasNext() {
+        return cell.next != null || !exhausted && readNext(cell);
+      }
+
+      public void advanceNext() throws NoSuchElementException {
+        if (!hasNext())
+          throw new NoSuchElementException();
+        cell = cell.next;
+      }
+
+      public A current() {
+        return cell.element;
+      }
+    };
+  }
+
+  /**
+   * Reads the next source element and appends it after the given cell, unless
+   * other reader has already done it
+   *
+   * @return if there is a cell after the given one
+   */
+  private synchronized boolean readNext(Cell<A> last) {
+    if (last.next == null && !exhausted) {
+      if (source.hasNext())
+        last.next = new Cell<A>(source.next());
+      else
+        exhausted = true;
+    }
+    return last.next != null;
+  }
+
+  private static final class Cell<A> {
+    private final A element;
+    private volatile Cell<A> next;
+
+    public Cell(A element) {
+      this.element = element;
+    }
+  }
+
+}
@@ -0,0 +1,308 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.stream.internal.algorithms;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+import net.sf.roggen.collections.stream.AbstractStream;
+import net.sf.roggen.collections.stream.Stream;
+import net.sf.roggen.io.Codec;
+import net.sf.roggen.iterators.thriter.AdvanceThriterator;
+import net.sf.roggen.iterators.thriter.Thriterator;
+import net.sf.roggen.lang.SoftException;
+import net.sf.roggen.restrictions.check.NonNull;
+import net.sf.roggen.restrictions.check.NotNegative;
+
+/**
+ * A sorted {@link Stream} for sources that may not fit in memory. The source is
+ * read in runs of a bounded size, that are sorted in memory and spilled to
+ * temporary files using a {@link Codec}. The last run is kept in memory.
+ *
+ * Runs are merged through a heap. In order to bound the number of files that
+ * are open at once, while there are more than {@value #MAX_MERGE_WIDTH} runs,
+ * groups of consecutive runs are merged into intermediate run files. The last
+ * merge is performed lazily, so that each run is only read as far as needed.
+ * Each run file is deleted as soon as it has been completely read, or on JVM
+ * exit otherwise.
+ *
+ * Sorting is stable: equal elements are retrieved in source order.
+ *
+ * @author flbulgarelli
+ *
+ * @param <A>
+ */
+public final class ExternalSortedStream<A> extends AbstractStream<A> {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final int MAX_MERGE_WIDTH = 64;
+
+  private final Stream<A> source;
+  private final Comparator<? super A> comparator;
+  private final Codec<A> codec;
+  private final int runSize;
+
+  /**
+   * Creates a new {@link ExternalSortedStream}
+   *
+   * @param runSize
+   *          the maximum number of elements sorted in memory at once
+   */
+  public ExternalSortedStream(@NonNull Stream<A> source, @NonNull Comparator<? super A> comparator,
+    @NonNull Codec<A> codec, @NotNegative int runSize) {
+    this.source = source;
+    this.comparator = comparator;
+    this.codec = codec;
+    this.runSize = Math.max(runSize, 1);
+  }
+
+  @Override
+  public Thriterator<A> iterator() {
+    List<Run<A>> runs = new ArrayList<Run<A>>();
+    boolean completed = false;
+    try {
+      Iterator<A> iter = source.iterator();
+      List<A> buffer = new ArrayList<A>();
+      while (iter.hasNext()) {
+        buffer.add(iter.next());
+        if (buffer.size() == runSize && iter.hasNext()) {
+          Collections.sort(buffer, comparator);
+          runs.add(new FileRun<A>(runs.size(), buffer.iterator(), codec));
+          buffer.clear();
+        }
+      }
+      while (runs.size() >= MAX_MERGE_WIDTH)
+        runs = mergePass(runs);
+      Collections.sort(buffer, comparator);
+      runs.add(new MemoryRun<A>(runs.size(), buffer));
+      Thriterator<A> merge = merge(runs);
+      completed = true;
+      return merge;
+    } catch (IOException e) {
+      throw SoftException.soften(e);
+    } finally {
+      if (!completed)
+        closeAll(runs);
+    }
+  }
+
+  /**
+   * Merges each group of {@value #MAX_MERGE_WIDTH} consecutive runs into a new
+   * run file
+   *
+   * @return the merged runs, in the same order
+   */
+  private List<Run<A>> mergePass(List<Run<A>> runs) throws IOException {
+    List<Run<A>> merged = new ArrayList<Run<A>>();
+    boolean completed = false;
+    try {
+      for (int from = 0; from < runs.size(); from += MAX_MERGE_WIDTH) {
+        List<Run<A>> group = runs.subList(from, Math.min(from + MAX_MERGE_WIDTH, runs.size()));
+        merged.add(new FileRun<A>(merged.size(), merge(group), codec));
+      }
+      completed = true;
+      return merged;
+    } finally {
+      if (!completed)
+        closeAll(merged);
+    }
+  }
+
+  /**
+   * Answers a thriterator that lazily merges the given runs, that must be
+   * sorted by index. Runs are closed if it fails
+   */
+  private Thriterator<A> merge(List<Run<A>> runs) throws IOException {
+    PriorityQueue<Run<A>> heap = new PriorityQueue<Run<A>>(Math.max(runs.size(), 1), new Comparator<Run<A>>() {
+      public int compare(Run<A> o1, Run<A> o2) {
+        int result = comparator.compare(o1.head, o2.head);
+        if (result != 0)
+          return result;
+        return o1.index - o2.index;
+      }
+    });
+    boolean completed = false;
+    try {
+      for (Run<A> run : runs)
+        if (run.advance())
+          heap.add(run);
+      completed = true;
+    } finally {
+      if (!completed)
+        closeAll(runs);
+    }
+    return new MergeThriterator<A>(heap, runs);
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return source.isEmpty();
+  }
+
+  @Override
+  public Stream<A> take(@NotNegative int amountOfElements) {
+    return source.topK(amountOfElements, comparator);
+  }
+
+  private static void closeAll(List<? extends Run<?>> runs) {
+    for (Run<?> run : runs)
+      run.close();
+  }
+
+  private static final class MergeThriterator<A> extends AdvanceThriterator<A> {
+    private final PriorityQueue<Run<A>> heap;
+    private final List<Run<A>> runs;
+    private A current;
+
+    public MergeThriterator(PriorityQueue<Run<A>> heap, List<Run<A>> runs) {
+      this.heap = heap;
+      this.runs = runs;
+    }
+
+    public boolean hasNext() {
+      return !heap.isEmpty();
+    }
+
+    public void advanceNext() throws NoSuchElementException {
+      if (heap.isEmpty())
+        throw new NoSuchElementException();
+      Run<A> run = heap.peek();
+      current = run.head;
+      boolean advanced = false;
+      try {
+        heap.poll();
+        if (run.advance())
+          heap.add(run);
+        advanced = true;
+      } catch (IOException e) {
+        throw SoftException.soften(e);
+      } finally {
+        if (!advanced) {
+          closeAll(runs);
+          heap.clear();
+        }
+      }
+    }
+
+    public A current() {
+      return current;
+    }
+  }
+
+  private static abstract class Run<A> {
+    private final int index;
+    protected A head;
+
+    public Run(int index) {
+      this.index = index;
+    }
+
+    /**
+     * Reads the next element of this run into {@link #head}, releasing this run
+     * as soon as its last element has been read
+     *
+     * @return if there was a next element
+     */
+    public abstract boolean advance() throws IOException;
+
+    public abstract void close();
+  }
+
+  private static final class MemoryRun<A> extends Run<A> {
+    private final Iterator<A> iter;
+
+    public MemoryRun(int index, List<A> elements) {
+      super(index);
+      this.iter = elements.iterator();
+    }
+
+    public boolean advance() {
+      if (!iter.hasNext())
+        return false;
+      head = iter.next();
+      return true;
+    }
+
+    public void close() {}
+  }
+
+  private static final class FileRun<A> extends Run<A> {
+    private final File file;
+    private final Codec<A> codec;
+    private DataInputStream input;
+    private int remaining;
+
+    public FileRun(int index, Iterator<A> elements, Codec<A> codec) throws IOException {
+      super(index);
+      this.codec = codec;
+      this.file = File.createTempFile("roggen-sort", ".run");
+      file.deleteOnExit();
+      boolean written = false;
+      try {
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file),
+          BUFFER_SIZE));
+        try {
+          while (elements.hasNext()) {
+            codec.write(elements.next(), output);
+            remaining++;
+          }
+        } finally {
+          output.close();
+        }
+        written = true;
+      } finally {
+        if (!written)
+          file.delete();
+      }
+    }
+
+    public boolean advance() throws IOException {
+      if (remaining == 0)
+        return false;
+      if (input == null)
+        input = new DataInputStream(new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE));
+      head = codec.read(input);
+      if (--remaining == 0)
+        close();
+      return true;
+    }
+
+    public void close() {
+      try {
+        if (input != null)
+          input.close();
+      } catch (IOException e) {
+        // nothing to do, the run has already been read
+      } finally {
+        input = null;
+        file.delete();
+      }
+    }
+  }
+
+}
@@ -0,0 +1,107 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.stream.internal.algorithms;
+
+import static net.sf.roggen.collections.internal.iterator.FusedIterator.*;
+
+import java.util.Arrays;
+
+import net.sf.roggen.collections.internal.iterator.FusedIterator;
+import net.sf.roggen.collections.stream.AbstractStream;
+import net.sf.roggen.collections.stream.Stream;
+import net.sf.roggen.defs.Evaluable;
+import net.sf.roggen.defs.function.Function;
+import net.sf.roggen.iterators.thriter.Thriterator;
+import net.sf.roggen.restrictions.check.NonNull;
+import net.sf.roggen.restrictions.check.NotNegative;
+
+/**
+ * A {@link Stream} that accumulates consecutive map, filter, takeWhile, take
+ * and drop stages over a source stream, and evaluates them in a single
+ * {@link FusedIterator}.
+ *
+ * The source must be repeatable, since each {@link #iterator()} is built over
+ * a new source iterator
+ *
+ * @author flbulgarelli
+ *
+ * @param <A>
+ */
+public final class FusedStream<A> extends AbstractStream<A> {
+
+  private final Stream<?> source;
+  private final int[] kinds;
+  private final Object[] operations;
+  private final int[] amounts;
+
+  private FusedStream(Stream<?> source, int[] kinds, Object[] operations, int[] amounts) {
+    this.source = source;
+    this.kinds = kinds;
+    this.operations = operations;
+    this.amounts = amounts;
+  }
+
+  /**
+   * Creates a new {@link FusedStream} with a single stage
+   *
+   * @param source
+   *          the source of elements
+   * @param kind
+   *          the kind of stage, as defined by {@link FusedIterator}
+   * @param operation
+   *          the stage function or predicate, if any
+   * @param amount
+   *          the amount of elements to take or drop, if any
+   */
+  public FusedStream(@NonNull Stream<?> source, int kind, Object operation, int amount) {
+    this(source, new int[] { kind }, new Object[] { operation }, new int[] { amount });
+  }
+
+  public Thriterator<A> iterator() {
+    return new FusedIterator<A>(source.iterator(), kinds, operations, amounts);
+  }
+
+  private <B> FusedStream<B> with(int kind, Object operation, int amount) {
+    int length = kinds.length;
+    int[] newKinds = Arrays.copyOf(kinds, length + 1);
+    Object[] newOperations = Arrays.copyOf(operations, length + 1);
+    int[] newAmounts = Arrays.copyOf(amounts, length + 1);
+    newKinds[length] = kind;
+    newOperations[length] = operation;
+    newAmounts[length] = amount;
+    return new FusedStream<B>(source, newKinds, newOperations, newAmounts);
+  }
+
+  public <B> Stream<B> map(@NonNull Function<? super A, ? extends B> function) {
+    return with(MAP, function, 0);
+  }
+
+  public Stream<A> filter(@NonNull Evaluable<? super A> predicate) {
+    return with(FILTER, predicate, 0);
+  }
+
+  public Stream<A> takeWhile(@NonNull Evaluable<? super A> predicate) {
+    return with(TAKE_WHILE, predicate, 0);
+  }
+
+  public Stream<A> take(@NotNegative int amountOfElements) {
+    return with(TAKE, null, amountOfElements);
+  }
+
+  public Stream<A> drop(@NotNegative int amountOfElements) {
+    return with(DROP, null, amountOfElements);
+  }
+
+}
@@ -0,0 +1,169 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.stream.internal.algorithms;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import net.sf.roggen.collections.EmptySourceException;
+import net.sf.roggen.collections.stream.AbstractStream;
+import net.sf.roggen.collections.stream.IndexedStream;
+import net.sf.roggen.collections.stream.Stream;
+import net.sf.roggen.defs.function.Function;
+import net.sf.roggen.iterators.thriter.Thriterator;
+import net.sf.roggen.lang.Option;
+import net.sf.roggen.restrictions.check.NonNull;
+
+/**
+ * An {@link IndexedStream} that indexes a repeatable source stream into a
+ * {@link HashMap}. The index is built the first time it is accessed, and it is
+ * safe to access it concurrently.
+ * 
+ * @author flbulgarelli
+ * 
+ * @param <K>
+ * @param <A>
+ */
+public final class HashIndexedStream<K, A> extends AbstractStream<A> implements IndexedStream<K, A> {
+
+  private final Stream<A> source;
+  private final Function<? super A, ? extends K> function;
+  private volatile Map<K, List<A>> index;
+
+  /**
+   * Creates a new {@link HashIndexedStream}
+   * 
+   * @param source
+   *          a repeatable stream
+   * @param function
+   *          the key function
+   */
+  public HashIndexedStream(@NonNull Stream<A> source, @NonNull Function<? super A, ? extends K> function) {
+    this.source = source;
+    this.function = function;
+  }
+
+  public Thriterator<A> iterator() {
+    return source.iterator();
+  }
+
+  private Map<K, List<A>> index() {
+    Map<K, List<A>> index = this.index;
+    if (index == null)
+      synchronized (this) {
+        index = this.index;
+        if (index == null)
+          this.index = index = buildIndex();
+      }
+    return index;
+  }
+
+  private Map<K, List<A>> buildIndex() {
+    Map<K, List<A>> index = new HashMap<K, List<A>>();
+    for (A element : source) {
+      K key = function.apply(element);
+      List<A> elements = index.get(key);
+      if (elements == null) {
+        index.put(key, Collections.singletonList(element));
+      } else {
+        if (elements.size() == 1) {
+          elements = new ArrayList<A>(elements);
+          index.put(key, elements);
+        }
+        elements.add(element);
+      }
+    }
+    return index;
+  }
+
+  public A lookup(K key) throws EmptySourceException, NoSuchElementException {
+    List<A> elements = index().get(key);
+    if (elements != null)
+      return elements.get(0);
+    if (index().isEmpty())
+      throw new EmptySourceException("Source is empty");
+    throw new NoSuchElementException("No element with key " + key);
+  }
+
+  public Option<A> lookupOrNone(K key) {
+    List<A> elements = index().get(key);
+    return elements == null ? Option.<A> none() : Option.some(elements.get(0));
+  }
+
+  public List<A> lookupAll(K key) {
+    List<A> elements = index().get(key);
+    if (elements == null)
+      return Collections.emptyList();
+    return Collections.unmodifiableList(elements);
+  }
+
+  public boolean containsKey(K key) {
+    return index().containsKey(key);
+  }
+
+  public Function<? super A, ? extends K> keyFunction() {
+    return function;
+  }
+
+  public <K2> A lookup(K2 key, Function<? super A, ? extends K2> function) {
+    if (this.function.equals(function))
+      return lookup(asKey(key));
+    return super.lookup(key, function);
+  }
+
+  public <K2> Option<A> lookupOrNone(K2 key, Function<? super A, ? extends K2> function) {
+    if (this.function.equals(function))
+      return lookupOrNone(asKey(key));
+    return super.lookupOrNone(key, function);
+  }
+
+  public boolean contains(A element) {
+    return source.contains(element);
+  }
+
+  public boolean isEmpty() {
+    return source.isEmpty();
+  }
+
+  public int size() {
+    return source.size();
+  }
+
+  public <K2> IndexedStream<K2, A> indexOn(Function<? super A, ? extends K2> function) {
+    if (this.function.equals(function))
+      return asIndexedOn();
+    return new HashIndexedStream<K2, A>(source, function);
+  }
+
+  /*
+   * The following casts are only performed once the given function is known
+   * to be equal to the key function, so that keys are of type K
+   */
+
+  @SuppressWarnings("unchecked")
+  private K asKey(Object key) {
+    return (K) key;
+  }
+
+  @SuppressWarnings("unchecked")
+  private <K2> IndexedStream<K2, A> asIndexedOn() {
+    return (IndexedStream<K2, A>) this;
+  }
+
+}
@@ -14,19 +14,26 @@
 
 package net.sf.roggen.collections.stream.internal.algorithms;
 
+import java.util.concurrent.ExecutorService;
+
+import net.sf.roggen.collections.internal.iterator.FusedIterator;
 import net.sf.roggen.collections.internal.iterator.MapIterator;
 import net.sf.roggen.collections.stream.AbstractStream;
 import net.sf.roggen.collections.stream.Stream;
+import net.sf.roggen.collections.stream.internal.RandomAccessAware;
+import net.sf.roggen.collections.stream.internal.StrictStream;
+import net.sf.roggen.defs.Evaluable;
 import net.sf.roggen.defs.function.Function;
 import net.sf.roggen.iterators.thriter.Thriterator;
 import net.sf.roggen.restrictions.check.NonNull;
+import net.sf.roggen.restrictions.check.NotNegative;
 
 /**
  * @author flbulgarelli
  * 
  * @param <B>
  */
-public final class MapStream<A, B> extends AbstractStream<B> {
+public final class MapStream<A, B> extends AbstractStream<B> implements RandomAccessAware {
   private final Stream<A> stream;
   private final Function<? super A, ? extends B> function;
 
@@ -57,9 +64,46 @@ public final class MapStream<A, B> extends AbstractStream<B> {
     return stream.isEmpty();
   }
 
+  public boolean isRandomAccess() {
+    return RandomAccessStream.isRandomAccess(stream);
+  }
+
   @Override
   public <C> Stream<C> map(final Function<? super B, ? extends C> function) {
     return new MapStream<A, C>(stream, function.of(this.function));
   }
 
+  @Override
+  public Stream<B> filter(Evaluable<? super B> predicate) {
+    if (!isRepeatable())
+      return super.filter(predicate);
+    return new FusedStream<B>(stream, FusedIterator.MAP, function, 0).filter(predicate);
+  }
+
+  @Override
+  public Stream<B> takeWhile(Evaluable<? super B> predicate) {
+    if (!isRepeatable())
+      return super.takeWhile(predicate);
+    return new FusedStream<B>(stream, FusedIterator.MAP, function, 0).takeWhile(predicate);
+  }
+
+  @Override
+  public Stream<B> take(@NotNegative int amountOfElements) {
+    return stream.take(amountOfElements).map(function);
+  }
+
+  @Override
+  public Stream<B> drop(@NotNegative int amountOfElements) {
+    return stream.drop(amountOfElements).map(function);
+  }
+
+  private boolean isRepeatable() {
+    return stream instanceof StrictStream || stream instanceof RandomAccessStream;
+  }
+
+  @Override
+  public Stream<B> parallel(ExecutorService executor) {
+    return stream.parallel(executor).map(function);
+  }
+
 }
\ No newline at end of file
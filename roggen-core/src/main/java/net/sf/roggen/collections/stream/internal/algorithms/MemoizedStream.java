@@ -12,7 +12,6 @@
  *  GNU Lesser General Public License for more details.
  */
 
-
 package net.sf.roggen.collections.stream.internal.algorithms;
 
 import java.util.NoSuchElementException;
@@ -20,19 +19,34 @@ import java.util.NoSuchElementException;
 import net.sf.roggen.collections.stream.AbstractStream;
 import net.sf.roggen.collections.stream.Stream;
 import net.sf.roggen.defs.Thunk;
-import net.sf.roggen.iterators.EmptyThriterator;
 import net.sf.roggen.iterators.thriter.AdvanceThriterator;
 import net.sf.roggen.iterators.thriter.Thriterator;
+import net.sf.roggen.lang.thunk.Thunks;
 
 /**
+ * A {@link Stream} that caches the elements of a source thriterator as they
+ * are retrieved, so that it can be iterated many times.
+ * 
+ * Elements are stored in a {@link ChunkedArray}. Those that were retrieved
+ * through {@link Thriterator#current()} are stored directly, and only those
+ * that were retrieved through {@link Thriterator#delayedCurrent()} - or that
+ * were skipped - are stored as thunks, which are replaced by their value once
+ * it is evaluated.
+ * 
  * @author flbulgarelli
  * 
  */
 public class MemoizedStream<A> extends AbstractStream<A> {
 
-  private SingleLinkedDelayedQueue<A> previous = new SingleLinkedDelayedQueue<A>();
+  /**
+   * Marks the last element of the source, which has been retrieved neither as
+   * a value nor as a thunk yet
+   */
+  private static final Object UNRESOLVED = new Object();
+
+  private final ChunkedArray previous = new ChunkedArray();
 
-  private Thriterator<A> remaining;
+  private final Thriterator<A> remaining;
 
   /**
    * 
@@ -44,7 +58,7 @@ public class MemoizedStream<A> extends AbstractStream<A> {
 
   @Override
   public boolean isEmpty() {
-    return previous.isEmpty() && !remaining.hasNext();
+    return previous.size() == 0 && !remainingHasNext();
   }
 
   @Override
@@ -52,65 +66,117 @@ public class MemoizedStream<A> extends AbstractStream<A> {
     return this;
   }
 
+  @Override
+  public Stream<A> memoize(int numberOfElements) {
+    return this;
+  }
+
   @Override
   public Thriterator<A> iterator() {
-    if (remaining.isEmpty()) {
-      if (previous.isEmpty())
-        return EmptyThriterator.empty();
-      return previous.iterator();
-    }
-    final Thriterator<A> previousIter = previous.iterator();
     return new AdvanceThriterator<A>() {
-      private Thunk<A> current;
-      private Thriterator<A> iter = previousIter;
-      private boolean remainingIterationStarted = false;
+      private int index = -1;
 
       public boolean hasNext() {
-        if (remainingIterationStarted)
-          return iter.hasNext();
-        return remaining.hasNext();
+        return index + 1 < previous.size() || remainingHasNext();
       }
 
       public void advanceNext() throws NoSuchElementException {
-        if (!remainingIterationStarted && !iter.hasNext()) {
-          iter = newRemaningIterator();
-          remainingIterationStarted = true;
-        }
-        iter.advanceNext();
+        if (index + 1 == previous.size())
+          fetchNext();
+        index++;
       }
 
       public A current() {
-        return iter.current();
+        return valueAt(index);
       }
 
       @Override
       public Thunk<A> delayedCurrent() {
-        return iter.delayedCurrent();
+        return delayedAt(index);
       }
+    };
+  }
+
+  private boolean remainingHasNext() {
+    resolveLast();
+    return remaining.hasNext();
+  }
 
-      public Thriterator<A> newRemaningIterator() {
-        return new AdvanceThriterator<A>() {
-          public boolean hasNext() {
-            return remaining.hasNext();
-          }
-
-          public void advanceNext() throws NoSuchElementException {
-            remaining.advanceNext();
-            current = remaining.delayedCurrent();
-            previous.add(current);
-          }
-
-          public A current() {
-            return delayedCurrent().value();
-          }
-
-          @Override
-          public Thunk<A> delayedCurrent() {
-            return current;
-          }
-        };
+  private void fetchNext() {
+    if (!remainingHasNext())
+      throw new NoSuchElementException();
+    remaining.advanceNext();
+    previous.add(UNRESOLVED);
+  }
+
+  /**
+   * Stores the last element as a thunk, if it has not been retrieved yet,
+   * before the source advances
+   */
+  private void resolveLast() {
+    int last = previous.size() - 1;
+    if (last >= 0 && previous.get(last) == UNRESOLVED)
+      previous.set(last, new Delayed<A>(remaining.delayedCurrent()));
+  }
+
+  private A valueAt(int index) {
+    Object element = previous.get(index);
+    A value;
+    if (element == UNRESOLVED)
+      value = remaining.current();
+    else if (element instanceof Delayed)
+      value = asDelayed(element).value();
+    else
+      return asValue(element);
+    previous.set(index, value);
+    return value;
+  }
+
+  private Thunk<A> delayedAt(int index) {
+    Object element = previous.get(index);
+    if (element == UNRESOLVED) {
+      Delayed<A> delayed = new Delayed<A>(remaining.delayedCurrent());
+      previous.set(index, delayed);
+      return delayed;
+    }
+    if (element instanceof Delayed)
+      return asDelayed(element);
+    return Thunks.constant(asValue(element));
+  }
+
+  /*
+   * Previous holds either UNRESOLVED, Delayed<A> thunks or already evaluated
+   * elements of the source. These are the only unchecked casts.
+   */
+
+  @SuppressWarnings("unchecked")
+  private A asValue(Object element) {
+    return (A) element;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Delayed<A> asDelayed(Object element) {
+    return (Delayed<A>) element;
+  }
+
+  /**
+   * A thunk that evaluates its source thunk only once
+   */
+  static final class Delayed<A> implements Thunk<A> {
+    private Thunk<A> thunk;
+    private A value;
+
+    public Delayed(Thunk<A> thunk) {
+      this.thunk = thunk;
+    }
+
+    public A value() {
+      if (thunk != null) {
+        value = thunk.value();
+        thunk = null;
       }
-    };
+      return value;
+    }
   }
 
 }
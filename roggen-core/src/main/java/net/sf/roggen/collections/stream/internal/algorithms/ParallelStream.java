@@ -0,0 +1,335 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.stream.internal.algorithms;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+import net.sf.roggen.collections.internal.Chunks;
+import net.sf.roggen.collections.stream.AbstractStream;
+import net.sf.roggen.collections.stream.Stream;
+import net.sf.roggen.collections.stream.Streams;
+import net.sf.roggen.defs.Applicable;
+import net.sf.roggen.defs.Applicable2;
+import net.sf.roggen.defs.Evaluable;
+import net.sf.roggen.defs.function.Function;
+import net.sf.roggen.defs.reduction.MergeableAccumulator;
+import net.sf.roggen.defs.reduction.MergeableReduction;
+import net.sf.roggen.defs.reduction.Reduction;
+import net.sf.roggen.defs.type.NumberType;
+import net.sf.roggen.iterators.thriter.SplittableThriterator;
+import net.sf.roggen.iterators.thriter.Thriterator;
+import net.sf.roggen.lang.Option;
+import net.sf.roggen.lang.function.AbstractFunction;
+import net.sf.roggen.lang.function.AbstractFunction2;
+import net.sf.roggen.restrictions.check.NonNull;
+
+/**
+ * A {@link Stream} that splits the {@link SplittableThriterator} of its source
+ * into contiguous chunks, applies its stateless stages - {@link #map(Function)}
+ * and {@link #filter(Evaluable)} - to each chunk in an {@link ExecutorService},
+ * and combines partial results in chunk order.
+ *
+ * Its iterator and any other non-overriden message are evaluated sequentially.
+ *
+ * @author flbulgarelli
+ *
+ * @param <S>
+ *          the source elements type
+ * @param <A>
+ *          the elements type
+ */
+public final class ParallelStream<S, A> extends AbstractStream<A> {
+
+  private final Stream<S> source;
+  private final ExecutorService executor;
+  private final Applicable<Stream<S>, Stream<A>> pipeline;
+
+  /**
+   * Creates a new {@link ParallelStream}
+   */
+  public ParallelStream(@NonNull Stream<S> source, @NonNull ExecutorService executor,
+    @NonNull Applicable<Stream<S>, Stream<A>> pipeline) {
+    this.source = source;
+    this.executor = executor;
+    this.pipeline = pipeline;
+  }
+
+  /**
+   * Creates a new {@link ParallelStream} with no stages. The given source
+   * should answer {@link SplittableThriterator}s, otherwise it will be
+   * evaluated as a single chunk
+   */
+  public static <A> Stream<A> from(@NonNull Stream<A> source, @NonNull ExecutorService executor) {
+    return new ParallelStream<A, A>(source, executor, new AbstractFunction<Stream<A>, Stream<A>>() {
+      public Stream<A> apply(Stream<A> arg) {
+        return arg;
+      }
+    });
+  }
+
+  public Thriterator<A> iterator() {
+    return pipeline.apply(source).iterator();
+  }
+
+  public <B> Stream<B> map(final Function<? super A, ? extends B> function) {
+    return new ParallelStream<S, B>(source, executor, new AbstractFunction<Stream<S>, Stream<B>>() {
+      public Stream<B> apply(Stream<S> arg) {
+        return pipeline.apply(arg).map(function);
+      }
+    });
+  }
+
+  public Stream<A> filter(final Evaluable<? super A> predicate) {
+    return new ParallelStream<S, A>(source, executor, new AbstractFunction<Stream<S>, Stream<A>>() {
+      public Stream<A> apply(Stream<S> arg) {
+        return pipeline.apply(arg).filter(predicate);
+      }
+    });
+  }
+
+  public Stream<A> parallel(ExecutorService executor) {
+    return new ParallelStream<S, A>(source, executor, pipeline);
+  }
+
+  public List<A> toList() {
+    List<A> result = new ArrayList<A>();
+    for (List<A> partial : evalChunks(new AbstractFunction<Stream<A>, List<A>>() {
+      public List<A> apply(Stream<A> arg) {
+        return arg.toList();
+      }
+    }))
+      result.addAll(partial);
+    return result;
+  }
+
+  public int size() {
+    int size = 0;
+    for (Integer partial : evalChunks(new AbstractFunction<Stream<A>, Integer>() {
+      public Integer apply(Stream<A> arg) {
+        return arg.size();
+      }
+    }))
+      size += partial;
+    return size;
+  }
+
+  public int countOf(final Evaluable<? super A> predicate) {
+    int count = 0;
+    for (Integer partial : evalChunks(new AbstractFunction<Stream<A>, Integer>() {
+      public Integer apply(Stream<A> arg) {
+        return arg.countOf(predicate);
+      }
+    }))
+      count += partial;
+    return count;
+  }
+
+  public boolean any(final Evaluable<? super A> predicate) {
+    for (Boolean partial : evalChunks(new AbstractFunction<Stream<A>, Boolean>() {
+      public Boolean apply(Stream<A> arg) {
+        return arg.any(predicate);
+      }
+    }))
+      if (partial)
+        return true;
+    return false;
+  }
+
+  public boolean all(final Evaluable<? super A> predicate) {
+    for (Boolean partial : evalChunks(new AbstractFunction<Stream<A>, Boolean>() {
+      public Boolean apply(Stream<A> arg) {
+        return arg.all(predicate);
+      }
+    }))
+      if (!partial)
+        return false;
+    return true;
+  }
+
+  public A sum(final NumberType<A> numberType) {
+    return combine(numberType.zero(), numberType.add(), new AbstractFunction<Stream<A>, A>() {
+      public A apply(Stream<A> arg) {
+        return arg.sum(numberType);
+      }
+    });
+  }
+
+  public A product(final NumberType<A> numberType) {
+    return combine(numberType.one(), numberType.multiply(), new AbstractFunction<Stream<A>, A>() {
+      public A apply(Stream<A> arg) {
+        return arg.product(numberType);
+      }
+    });
+  }
+
+  /**
+   * Reduces each chunk and then reduces the partial results, in chunk order.
+   * Thus, the given function must be associative
+   */
+  public A reduce(final Applicable2<? super A, ? super A, ? extends A> function) {
+    List<Option<A>> partials = evalChunks(new AbstractFunction<Stream<A>, Option<A>>() {
+      public Option<A> apply(Stream<A> arg) {
+        Iterator<A> iter = arg.iterator();
+        if (!iter.hasNext())
+          return Option.none();
+        A result = iter.next();
+        while (iter.hasNext())
+          result = function.apply(result, iter.next());
+        return Option.some(result);
+      }
+    });
+    Option<A> result = Option.none();
+    for (Option<A> partial : partials)
+      if (partial.isDefined())
+        result = result.isDefined() ? Option.<A> some(function.apply(result.value(), partial.value())) : partial;
+    if (!result.isDefined())
+      return pipeline.apply(source).reduce(function);
+    return result.value();
+  }
+
+  /**
+   * Reduces each chunk with its own accumulator, and merges them in chunk
+   * order, if the given reduction is a {@link MergeableReduction}. Otherwise,
+   * reduces sequentially
+   */
+  public <B> B reduce(Reduction<? super A, B> reduction) {
+    if (!(reduction instanceof MergeableReduction))
+      return super.reduce(reduction);
+    final MergeableReduction<A, B> mergeable = (MergeableReduction<A, B>) reduction;
+    List<MergeableAccumulator<A, B>> partials = evalChunks(
+      new AbstractFunction<Stream<A>, MergeableAccumulator<A, B>>() {
+        public MergeableAccumulator<A, B> apply(Stream<A> arg) {
+          MergeableAccumulator<A, B> accum = mergeable.newAccumulator();
+          for (A element : arg)
+            accum.accumulate(element);
+          return accum;
+        }
+      });
+    MergeableAccumulator<A, B> result = partials.get(0);
+    for (MergeableAccumulator<A, B> partial : partials.subList(1, partials.size()))
+      result.merge(partial);
+    return result.value();
+  }
+
+  public A maximumBy(Comparator<? super A> comparator) {
+    return reduce(selectBy(comparator, 1));
+  }
+
+  public A minimumBy(Comparator<? super A> comparator) {
+    return reduce(selectBy(comparator, -1));
+  }
+
+  private Applicable2<A, A, A> selectBy(final Comparator<? super A> comparator, final int sign) {
+    return new AbstractFunction2<A, A, A>() {
+      public A apply(A arg0, A arg1) {
+        return comparator.compare(arg0, arg1) * sign >= 0 ? arg0 : arg1;
+      }
+    };
+  }
+
+  /**
+   * Groups and reduces each chunk in its own map, and then merges the partial
+   * maps in chunk order, if the given reduction is a
+   * {@link MergeableReduction}. Otherwise, groups sequentially
+   */
+  public <K, V> Map<K, V> groupOn(final Applicable<? super A, K> groupFunction, final Reduction<A, V> reduction) {
+    if (!(reduction instanceof MergeableReduction))
+      return super.groupOn(groupFunction, reduction);
+    List<Map<K, MergeableAccumulator<A, V>>> partials = evalChunks(
+      new AbstractFunction<Stream<A>, Map<K, MergeableAccumulator<A, V>>>() {
+        public Map<K, MergeableAccumulator<A, V>> apply(Stream<A> arg) {
+          Map<K, MergeableAccumulator<A, V>> map = new LinkedHashMap<K, MergeableAccumulator<A, V>>();
+          for (A element : arg) {
+            K key = groupFunction.apply(element);
+            MergeableAccumulator<A, V> accum = map.get(key);
+            if (accum == null) {
+              accum = ((MergeableReduction<A, V>) reduction).newAccumulator();
+              map.put(key, accum);
+            }
+            accum.accumulate(element);
+          }
+          return map;
+        }
+      });
+    Map<K, MergeableAccumulator<A, V>> result = partials.get(0);
+    for (Map<K, MergeableAccumulator<A, V>> partial : partials.subList(1, partials.size()))
+      for (Entry<K, MergeableAccumulator<A, V>> entry : partial.entrySet()) {
+        MergeableAccumulator<A, V> accum = result.get(entry.getKey());
+        if (accum == null)
+          result.put(entry.getKey(), entry.getValue());
+        else
+          accum.merge(entry.getValue());
+      }
+    Map<K, V> values = new LinkedHashMap<K, V>();
+    for (Entry<K, MergeableAccumulator<A, V>> entry : result.entrySet())
+      values.put(entry.getKey(), entry.getValue().value());
+    return values;
+  }
+
+  private A combine(A initial, Applicable2<? super A, ? super A, ? extends A> function,
+    Applicable<Stream<A>, A> chunkFunction) {
+    A result = initial;
+    for (A partial : evalChunks(chunkFunction))
+      result = function.apply(result, partial);
+    return result;
+  }
+
+  /**
+   * Applies the pipeline and then the given function to each chunk of the
+   * source. The first chunk is evaluated in the current thread, and the rest of
+   * them are submitted to the executor
+   *
+   * @return the partial results, in chunk order
+   */
+  private <B> List<B> evalChunks(final Applicable<Stream<A>, B> chunkFunction) {
+    List<Thriterator<S>> chunks = new ArrayList<Thriterator<S>>();
+    split(source.iterator(), Chunks.maxChunks(), chunks);
+    List<Callable<B>> tasks = new ArrayList<Callable<B>>(chunks.size());
+    for (final Thriterator<S> chunk : chunks)
+      tasks.add(new Callable<B>() {
+        public B call() throws Exception {
+          return chunkFunction.apply(pipeline.apply(Streams.from(chunk)));
+        }
+      });
+    return Chunks.evalInOrder(tasks, executor);
+  }
+
+  /**
+   * Recursively splits the given thriterator into at most the given number of
+   * chunks, if it is a {@link SplittableThriterator}, and adds them to the
+   * given list, in order
+   */
+  private static <S> void split(Thriterator<S> iterator, int maxChunks, List<Thriterator<S>> chunks) {
+    if (maxChunks > 1 && iterator instanceof SplittableThriterator
+      && ((SplittableThriterator<S>) iterator).estimateSize() >= 2 * Chunks.MIN_CHUNK_SIZE) {
+      Thriterator<S> prefix = ((SplittableThriterator<S>) iterator).trySplit();
+      if (prefix != null) {
+        split(prefix, maxChunks / 2, chunks);
+        split(iterator, maxChunks - maxChunks / 2, chunks);
+        return;
+      }
+    }
+    chunks.add(iterator);
+  }
+
+}
@@ -0,0 +1,145 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.stream.internal.algorithms;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import net.sf.roggen.collections.stream.AbstractStream;
+import net.sf.roggen.collections.stream.Stream;
+import net.sf.roggen.defs.Evaluable;
+import net.sf.roggen.defs.Thunk;
+import net.sf.roggen.iterators.thriter.AdvanceThriterator;
+import net.sf.roggen.iterators.thriter.Thriterator;
+import net.sf.roggen.restrictions.check.NonNull;
+import net.sf.roggen.restrictions.check.NotNegative;
+
+/**
+ * A stream that memoizes only a prefix of its source. The prefix ends after a
+ * given amount of elements, or after the first element that does not satisfy a
+ * given predicate, inclusive. Elements of the prefix are evaluated at most
+ * once.
+ *
+ * Elements after the prefix are not memoized. The first iterator that goes
+ * beyond the prefix continues with the source iterator that filled it, and the
+ * rest of them open a new source iterator and skip the prefix, without
+ * evaluating it. Thus, iteration order is repeatable if the source is. If the
+ * source can only be iterated once, elements after the prefix are shared by
+ * all the iterators.
+ *
+ * @author flbulgarelli
+ *
+ * @param <A>
+ */
+public class PrefixMemoizedStream<A> extends AbstractStream<A> {
+
+  private final List<Thunk<A>> prefix = new ArrayList<Thunk<A>>();
+  private final Stream<A> source;
+  private final Thriterator<A> remaining;
+  private final int maxSize;
+  private final Evaluable<? super A> predicate;
+  private boolean complete;
+  private boolean remainingTaken;
+
+  /**
+   * Creates a new {@link PrefixMemoizedStream} that memoizes, at most, the
+   * given amount of elements
+   */
+  public PrefixMemoizedStream(@NonNull Stream<A> source, @NotNegative int maxSize) {
+    this(source, maxSize, null);
+  }
+
+  /**
+   * Creates a new {@link PrefixMemoizedStream} that memoizes elements up to the
+   * first one that does not satisfy the given predicate, inclusive
+   */
+  public PrefixMemoizedStream(@NonNull Stream<A> source, @NonNull Evaluable<? super A> predicate) {
+    this(source, Integer.MAX_VALUE, predicate);
+  }
+
+  private PrefixMemoizedStream(Stream<A> source, int maxSize, Evaluable<? super A> predicate) {
+    this.source = source;
+    this.remaining = source.iterator();
+    this.maxSize = maxSize;
+    this.predicate = predicate;
+    this.complete = maxSize == 0;
+  }
+
+  @Override
+  public Thriterator<A> iterator() {
+    return new AdvanceThriterator<A>() {
+      private int index = 0;
+      private Thriterator<A> tail;
+      private Thunk<A> current;
+
+      public boolean hasNext() {
+        if (index < prefix.size())
+          return true;
+        if (tail != null)
+          return tail.hasNext();
+        if (!complete || !remainingTaken)
+          return remaining.hasNext();
+        return tail().hasNext();
+      }
+
+      public void advanceNext() throws NoSuchElementException {
+        if (index < prefix.size()) {
+          current = prefix.get(index++);
+        } else if (!complete) {
+          remaining.advanceNext();
+          current = new MemoizedStream.Delayed<A>(remaining.delayedCurrent());
+          prefix.add(current);
+          index++;
+          complete = prefix.size() == maxSize || predicate != null && !predicate.eval(current.value());
+        } else {
+          tail().advanceNext();
+          current = tail.delayedCurrent();
+        }
+      }
+
+      private Thriterator<A> tail() {
+        if (tail == null)
+          tail = openTail();
+        return tail;
+      }
+
+      public A current() {
+        return delayedCurrent().value();
+      }
+
+      @Override
+      public Thunk<A> delayedCurrent() {
+        return current;
+      }
+    };
+  }
+
+  /**
+   * Answers a source iterator positioned after the prefix
+   */
+  private Thriterator<A> openTail() {
+    if (!remainingTaken) {
+      remainingTaken = true;
+      return remaining;
+    }
+    Thriterator<A> tail = source.iterator();
+    if (tail != remaining)
+      for (int i = 0; i < prefix.size() && tail.hasNext(); i++)
+        tail.advanceNext();
+    return tail;
+  }
+
+}
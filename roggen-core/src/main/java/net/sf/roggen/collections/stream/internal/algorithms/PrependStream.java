@@ -89,6 +89,13 @@ public class PrependStream<A> extends AbstractStream<A> {
     return getSource().get(n - 1);
   }
 
+  /**
+   * Answers a thunk that evaluates to the head of this stream
+   */
+  protected Thunk<A> delayedHead() {
+    return Thunks.constant(head);
+  }
+
   protected final Thriterator<? extends A> tailIterator() {
     return getSource().iterator();
   }
@@ -0,0 +1,109 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.stream.internal.algorithms;
+
+import static net.sf.roggen.collections.iterable.internal.IterablesInternal.*;
+
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ExecutorService;
+
+import net.sf.roggen.collections.internal.iterator.FusedIterator;
+import net.sf.roggen.collections.stream.AbstractStream;
+import net.sf.roggen.collections.stream.Stream;
+import net.sf.roggen.collections.stream.internal.RandomAccessAware;
+import net.sf.roggen.defs.Evaluable;
+import net.sf.roggen.iterators.IndexedThriterator;
+import net.sf.roggen.iterators.thriter.Thriterator;
+import net.sf.roggen.restrictions.check.NonNull;
+import net.sf.roggen.restrictions.check.NotNegative;
+
+/**
+ * A lazy view of one or more random access sources, that computes its elements
+ * by index. Its {@link #take(int)}, {@link #drop(int)}, {@link #reverse()} and
+ * {@link #map(net.sf.roggen.defs.function.Function)} answer views too, so that
+ * random access is preserved through them.
+ *
+ * @author flbulgarelli
+ *
+ * @param <A>
+ */
+public abstract class RandomAccessStream<A> extends AbstractStream<A> implements RandomAccessAware {
+
+  public abstract A get(int n);
+
+  public abstract int size();
+
+  public Thriterator<A> iterator() {
+    return new IndexedThriterator<A>() {
+      protected A elementAt(int position) {
+        return get(position);
+      }
+
+      protected int length() {
+        return size();
+      }
+    };
+  }
+
+  public final boolean isRandomAccess() {
+    return true;
+  }
+
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  public A last() {
+    checkNotEmpty(this);
+    return get(size() - 1);
+  }
+
+  public Stream<A> filter(@NonNull Evaluable<? super A> predicate) {
+    return new FusedStream<A>(this, FusedIterator.FILTER, predicate, 0);
+  }
+
+  public Stream<A> takeWhile(@NonNull Evaluable<? super A> predicate) {
+    return new FusedStream<A>(this, FusedIterator.TAKE_WHILE, predicate, 0);
+  }
+
+  public Stream<A> take(@NotNegative int amountOfElements) {
+    return new SliceStream<A>(this, 0, Math.min(amountOfElements, size()));
+  }
+
+  public Stream<A> drop(@NotNegative int amountOfElements) {
+    int size = size();
+    return new SliceStream<A>(this, Math.min(amountOfElements, size), size);
+  }
+
+  public Stream<A> reverse() {
+    return new ReverseStream<A>(this);
+  }
+
+  public Stream<A> parallel(@NonNull ExecutorService executor) {
+    return ParallelStream.from(this, executor);
+  }
+
+  /**
+   * Answers if the given iterable is a {@link List} or a {@link Stream} whose
+   * elements can be retrieved by index in constant time
+   */
+  public static boolean isRandomAccess(Iterable<?> iterable) {
+    if (iterable instanceof RandomAccessAware)
+      return ((RandomAccessAware) iterable).isRandomAccess();
+    return iterable instanceof List && iterable instanceof RandomAccess;
+  }
+
+}
@@ -0,0 +1,56 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.stream.internal.algorithms;
+
+import net.sf.roggen.collections.stream.Stream;
+import net.sf.roggen.restrictions.check.NonNull;
+
+/**
+ * A view of the elements of a random access stream in reverse order
+ *
+ * @author flbulgarelli
+ *
+ * @param <A>
+ */
+public final class ReverseStream<A> extends RandomAccessStream<A> {
+
+  private final Stream<A> source;
+
+  /**
+   * Creates a new {@link ReverseStream}
+   *
+   * @param source
+   *          a random access stream
+   */
+  public ReverseStream(@NonNull Stream<A> source) {
+    this.source = source;
+  }
+
+  public A get(int n) {
+    int size = size();
+    if (n < 0 || n >= size)
+      throw new IndexOutOfBoundsException("At " + n);
+    return source.get(size - 1 - n);
+  }
+
+  public int size() {
+    return source.size();
+  }
+
+  public Stream<A> reverse() {
+    return source;
+  }
+
+}
@@ -0,0 +1,68 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.stream.internal.algorithms;
+
+import net.sf.roggen.collections.stream.Stream;
+import net.sf.roggen.restrictions.check.NonNull;
+import net.sf.roggen.restrictions.check.NotNegative;
+
+/**
+ * A contiguous range of the elements of a random access stream
+ *
+ * @author flbulgarelli
+ *
+ * @param <A>
+ */
+public final class SliceStream<A> extends RandomAccessStream<A> {
+
+  private final Stream<A> source;
+  private final int offset;
+  private final int size;
+
+  /**
+   * Creates a new {@link SliceStream}
+   *
+   * @param source
+   *          a random access stream
+   * @param beginIndex
+   *          the index of the first element, inclusive
+   * @param endIndex
+   *          the index of the last element, exclusive
+   */
+  public SliceStream(@NonNull Stream<A> source, @NotNegative int beginIndex, @NotNegative int endIndex) {
+    this.source = source;
+    this.offset = beginIndex;
+    this.size = endIndex - beginIndex;
+  }
+
+  public A get(int n) {
+    if (n < 0 || n >= size)
+      throw new IndexOutOfBoundsException("At " + n);
+    return source.get(offset + n);
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public Stream<A> take(@NotNegative int amountOfElements) {
+    return new SliceStream<A>(source, offset, offset + Math.min(amountOfElements, size));
+  }
+
+  public Stream<A> drop(@NotNegative int amountOfElements) {
+    return new SliceStream<A>(source, offset + Math.min(amountOfElements, size), offset + size);
+  }
+
+}
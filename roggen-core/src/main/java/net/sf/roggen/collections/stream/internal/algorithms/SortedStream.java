@@ -23,6 +23,7 @@ import net.sf.roggen.collections.stream.AbstractStream;
 import net.sf.roggen.collections.stream.Stream;
 import net.sf.roggen.iterators.thriter.Thriterator;
 import net.sf.roggen.iterators.thriter.Thriterators;
+import net.sf.roggen.restrictions.check.NotNegative;
 
 /**
  * @author flbulgarelli
@@ -71,6 +72,11 @@ public final class SortedStream<A> extends AbstractStream<A> {
     return source.isEmpty();
   }
 
+  @Override
+  public Stream<A> take(@NotNegative int amountOfElements) {
+    return source.topK(amountOfElements, comparator);
+  }
+
   /**
    * @return the source
    */
@@ -0,0 +1,137 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.stream.internal.algorithms;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import net.sf.roggen.collections.stream.AbstractStream;
+import net.sf.roggen.collections.stream.Stream;
+import net.sf.roggen.iterators.thriter.Thriterator;
+import net.sf.roggen.iterators.thriter.Thriterators;
+import net.sf.roggen.restrictions.check.NonNull;
+import net.sf.roggen.restrictions.check.NotNegative;
+
+/**
+ * A {@link Stream} that retrieves the first elements of its source in the order
+ * given by a comparator, without sorting the whole source. It keeps a bounded
+ * heap of candidates, so selecting k out of n elements takes O(n log k) time
+ * and O(k) space. Sources that have at most k elements are just sorted, so
+ * memory is bounded by the size of the source, even for huge values of k.
+ *
+ * Elements that are equal according to the comparator keep their source order,
+ * as they would with a stable sort.
+ *
+ * @author flbulgarelli
+ *
+ * @param <A>
+ */
+public final class TopKStream<A> extends AbstractStream<A> {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private final Stream<A> source;
+  private final int k;
+  private final Comparator<? super A> comparator;
+
+  /**
+   * Creates a new {@link TopKStream}
+   */
+  public TopKStream(@NonNull Stream<A> source, @NotNegative int k, @NonNull Comparator<? super A> comparator) {
+    this.source = source;
+    this.k = k;
+    this.comparator = comparator;
+  }
+
+  @Override
+  public Thriterator<A> iterator() {
+    return Thriterators.from(toList().iterator());
+  }
+
+  @Override
+  public List<A> toList() {
+    List<A> buffer = new ArrayList<A>(Math.min(k, INITIAL_CAPACITY));
+    if (k == 0)
+      return buffer;
+    Iterator<A> iterator = source.iterator();
+    while (buffer.size() < k && iterator.hasNext())
+      buffer.add(iterator.next());
+    if (!iterator.hasNext()) {
+      Collections.sort(buffer, comparator);
+      return buffer;
+    }
+    return selectTopK(buffer, iterator);
+  }
+
+  /**
+   * Selects the first k elements using a bounded heap, given the first k
+   * elements of the source and an iterator over the rest of them
+   */
+  private List<A> selectTopK(List<A> buffer, Iterator<A> iterator) {
+    final Comparator<Candidate<A>> order = new Comparator<Candidate<A>>() {
+      public int compare(Candidate<A> o1, Candidate<A> o2) {
+        int result = comparator.compare(o1.element, o2.element);
+        if (result != 0)
+          return result;
+        return o1.index < o2.index ? -1 : (o1.index == o2.index ? 0 : 1);
+      }
+    };
+    PriorityQueue<Candidate<A>> heap = new PriorityQueue<Candidate<A>>(k, Collections.reverseOrder(order));
+    int index = 0;
+    for (A element : buffer)
+      heap.add(new Candidate<A>(element, index++));
+    while (iterator.hasNext()) {
+      A element = iterator.next();
+      if (comparator.compare(element, heap.peek().element) < 0) {
+        heap.poll();
+        heap.add(new Candidate<A>(element, index));
+      }
+      index++;
+    }
+    List<Candidate<A>> candidates = new ArrayList<Candidate<A>>(heap);
+    Collections.sort(candidates, order);
+    List<A> result = new ArrayList<A>(k);
+    for (Candidate<A> candidate : candidates)
+      result.add(candidate.element);
+    return result;
+  }
+
+  @Override
+  public Stream<A> take(@NotNegative int amountOfElements) {
+    return new TopKStream<A>(source, Math.min(k, amountOfElements), comparator);
+  }
+
+  @Override
+  public A head() {
+    if (k == 0)
+      return super.head();
+    return source.minimumBy(comparator);
+  }
+
+  private static final class Candidate<A> {
+    private final A element;
+    private final int index;
+
+    public Candidate(A element, int index) {
+      this.element = element;
+      this.index = index;
+    }
+  }
+
+}
@@ -0,0 +1,148 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.stream.internal.algorithms;
+
+import java.util.LinkedList;
+import java.util.NoSuchElementException;
+
+import net.sf.roggen.collections.stream.Stream;
+import net.sf.roggen.defs.Thunk;
+import net.sf.roggen.iterators.thriter.AdvanceThriterator;
+import net.sf.roggen.iterators.thriter.Thriterator;
+import net.sf.roggen.restrictions.check.NonNull;
+
+/**
+ * A thriterator that evaluates recursively defined streams in constant stack.
+ * 
+ * Instead of delegating to the iterator of each nested stream, it unfolds the
+ * stream it iterates, one step at a time, in a loop:
+ * <ul>
+ * <li>{@link AbstractTransformStream}s are replaced by the result of their
+ * transformation</li>
+ * <li>{@link PrependStream}s retrieve their head, and are replaced by their
+ * tail</li>
+ * <li>{@link ConcatStream}s are replaced by their first stream, and their
+ * second stream is pushed onto a stack of pending streams</li>
+ * <li>Any other stream is iterated using its own iterator, and then the next
+ * pending stream is unfolded</li>
+ * </ul>
+ * 
+ * Thus, transformations like
+ * {@code cons(head, cons(separator, tail.intersperse(separator)))} produce a
+ * flat iteration, regardless of their length.
+ * 
+ * @author flbulgarelli
+ * 
+ * @param <A>
+ */
+public final class TrampolineThriterator<A> extends AdvanceThriterator<A> {
+
+  private final LinkedList<Stream<A>> pending = new LinkedList<Stream<A>>();
+  private Stream<A> stream;
+  private Thriterator<A> leaf;
+  private Thunk<A> head;
+
+  private Thriterator<A> currentLeaf;
+  private Thunk<A> currentHead;
+
+  /**
+   * Creates a new {@link TrampolineThriterator}
+   * 
+   * @param stream
+   *          the stream to iterate
+   */
+  public TrampolineThriterator(@NonNull Stream<A> stream) {
+    this.stream = stream;
+  }
+
+  /**
+   * Answers if the given stream is unfolded by this thriterator, instead of
+   * being iterated with its own iterator
+   * 
+   * @param stream
+   * @return if the stream is recursive
+   */
+  public static boolean isRecursive(Stream<?> stream) {
+    return stream instanceof AbstractTransformStream || stream instanceof PrependStream
+      || stream instanceof ConcatStream;
+  }
+
+  public boolean hasNext() {
+    for (;;) {
+      if (head != null)
+        return true;
+      if (leaf != null) {
+        if (leaf.hasNext())
+          return true;
+        leaf = null;
+      }
+      if (stream == null) {
+        if (pending.isEmpty())
+          return false;
+        stream = pending.removeFirst();
+      }
+      unfold();
+    }
+  }
+
+  private void unfold() {
+    Stream<A> next = stream;
+    stream = null;
+    if (next instanceof AbstractTransformStream) {
+      stream = ((AbstractTransformStream<?, A>) next).applyCached();
+    } else if (next instanceof PrependStream) {
+      PrependStream<A> prepend = (PrependStream<A>) next;
+      head = prepend.delayedHead();
+      stream = prepend.tail();
+    } else if (next instanceof ConcatStream) {
+      ConcatStream<A> concat = (ConcatStream<A>) next;
+      pending.addFirst(concat.getSecond());
+      stream = concat.getFirst();
+    } else {
+      leaf = next.iterator();
+    }
+  }
+
+  public void advanceNext() throws NoSuchElementException {
+    if (!hasNext())
+      throw new NoSuchElementException();
+    if (head != null) {
+      currentHead = head;
+      currentLeaf = null;
+      head = null;
+    } else {
+      leaf.advanceNext();
+      currentLeaf = leaf;
+      currentHead = null;
+    }
+  }
+
+  public A current() {
+    if (currentLeaf != null)
+      return currentLeaf.current();
+    if (currentHead == null)
+      throw new NoSuchElementException();
+    return currentHead.value();
+  }
+
+  public Thunk<A> delayedCurrent() {
+    if (currentLeaf != null)
+      return currentLeaf.delayedCurrent();
+    if (currentHead == null)
+      throw new NoSuchElementException();
+    return currentHead;
+  }
+
+}
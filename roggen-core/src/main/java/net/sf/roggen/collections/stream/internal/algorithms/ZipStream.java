@@ -0,0 +1,57 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.stream.internal.algorithms;
+
+import net.sf.roggen.collections.stream.Stream;
+import net.sf.roggen.defs.function.Function2;
+import net.sf.roggen.restrictions.check.NonNull;
+
+/**
+ * A view that combines the elements at the same position of two random access
+ * streams
+ *
+ * @author flbulgarelli
+ *
+ * @param <A>
+ * @param <B>
+ * @param <C>
+ */
+public final class ZipStream<A, B, C> extends RandomAccessStream<C> {
+
+  private final Stream<A> first;
+  private final Stream<B> second;
+  private final Function2<? super A, ? super B, C> function;
+
+  /**
+   * Creates a new {@link ZipStream}
+   */
+  public ZipStream(@NonNull Stream<A> first, @NonNull Stream<B> second,
+    @NonNull Function2<? super A, ? super B, C> function) {
+    this.first = first;
+    this.second = second;
+    this.function = function;
+  }
+
+  public C get(int n) {
+    if (n < 0 || n >= size())
+      throw new IndexOutOfBoundsException("At " + n);
+    return function.apply(first.get(n), second.get(n));
+  }
+
+  public int size() {
+    return Math.min(first.size(), second.size());
+  }
+
+}
@@ -53,6 +53,11 @@ public class DelayedPrependStream<A> extends PrependStream<A> {
     return headThunk().value();
   }
 
+  @Override
+  protected Thunk<A> delayedHead() {
+    return headThunk();
+  }
+
   protected final Thunk<A> headThunk() {
     return (Thunk<A>) super.head();
   }
@@ -0,0 +1,479 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.stream.primitive;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.RandomAccess;
+
+import net.sf.roggen.collections.EmptySourceException;
+import net.sf.roggen.collections.stream.Stream;
+import net.sf.roggen.collections.stream.Streams;
+import net.sf.roggen.defs.primitive.IntApplicable;
+import net.sf.roggen.defs.primitive.IntApplicable2;
+import net.sf.roggen.defs.primitive.IntEvaluable;
+import net.sf.roggen.defs.primitive.ToIntApplicable;
+import net.sf.roggen.defs.primitive.LongEvaluable;
+import net.sf.roggen.defs.primitive.DoubleEvaluable;
+import net.sf.roggen.reductions.Statistics;
+import net.sf.roggen.reductions.internal.StatisticsReduction;
+import net.sf.roggen.reductions.internal.StatisticsReduction.StatisticsAccumulator;
+import net.sf.roggen.restrictions.check.NonNull;
+
+/**
+ * A lazy sequence of {@code int}s, that - unlike a {@link Stream} of
+ * {@link Integer} - does not box its elements.
+ * 
+ * {@link IntStream}s are evaluated by pushing elements through all its
+ * transformations in a single loop, when one of its terminal operations - like
+ * {@link #fold(int, IntApplicable2)}, {@link #sum()} or {@link #toArray()} - is
+ * sent. They are repeatable as long as their source is.
+ * 
+ * @author flbulgarelli
+ * 
+ */
+public abstract class IntStream {
+
+  /**
+   * Sends each element of this stream, in order, to the given sink, until it
+   * answers false
+   * 
+   * @param sink
+   *          the elements receiver
+   * @return false if the sink stopped the traversal, true otherwise
+   */
+  protected abstract boolean forEachWhile(IntEvaluable sink);
+
+  /* Sources */
+
+  /**
+   * Creates a new {@link IntStream} that retrieves the given elements. The
+   * array is not copied
+   * 
+   * @param elements
+   * @return a new {@link IntStream}
+   */
+  public static IntStream from(@NonNull final int... elements) {
+    return new IntStream() {
+      protected boolean forEachWhile(IntEvaluable sink) {
+        for (int element : elements)
+          if (!sink.eval(element))
+            return false;
+        return true;
+      }
+
+      public int size() {
+        return elements.length;
+      }
+
+      public int[] toArray() {
+        return elements.clone();
+      }
+    };
+  }
+
+  /**
+   * Creates a new {@link IntStream} that unboxes the elements of the given
+   * {@link Iterable}
+   * 
+   * @param iterable
+   * @return a new {@link IntStream}
+   */
+  public static IntStream from(@NonNull Iterable<? extends Number> iterable) {
+    return from(iterable, new ToIntApplicable<Number>() {
+      public int apply(Number arg) {
+        return arg.intValue();
+      }
+    });
+  }
+
+  /**
+   * Creates a new {@link IntStream} that retrieves the result of applying the
+   * given function to each element of the given {@link Iterable}
+   * 
+   * @param iterable
+   * @param function
+   * @return a new {@link IntStream}
+   */
+  public static <A> IntStream from(@NonNull final Iterable<A> iterable,
+    @NonNull final ToIntApplicable<? super A> function) {
+    return new IntStream() {
+      protected boolean forEachWhile(IntEvaluable sink) {
+        for (Iterator<A> iter = iterable.iterator(); iter.hasNext();)
+          if (!sink.eval(function.apply(iter.next())))
+            return false;
+        return true;
+      }
+    };
+  }
+
+  /**
+   * Creates a new {@link IntStream} that retrieves the sequence
+   * {@code [start, start+1, start+2..., stop]}
+   * 
+   * @param start
+   *          the initial element of the sequence
+   * @param stop
+   *          the final element of the sequence, inclusive
+   * @return a new {@link IntStream}
+   */
+  public static IntStream enumerate(int start, int stop) {
+    return enumerate(start, stop, 1);
+  }
+
+  /**
+   * Creates a new {@link IntStream} that retrieves the sequence
+   * {@code [start, start+step, start+2*step..., stop]}
+   * 
+   * @param start
+   *          the initial element of the sequence
+   * @param stop
+   *          the final element of the sequence, inclusive
+   * @param step
+   *          the difference between consecutive elements
+   * @return a new {@link IntStream}
+   */
+  public static IntStream enumerate(final int start, int stop, final int step) {
+    final int size = Math.max(0, 1 + (stop - start) / step);
+    return new IntStream() {
+      protected boolean forEachWhile(IntEvaluable sink) {
+        int element = start;
+        for (int i = 0; i < size; i++, element += step)
+          if (!sink.eval(element))
+            return false;
+        return true;
+      }
+
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  /* Transformations */
+
+  /**
+   * Answers a new {@link IntStream} that retrieves the result of applying the
+   * given function to each element of this one
+   * 
+   * @param function
+   * @return a new {@link IntStream}
+   */
+  public IntStream map(@NonNull final IntApplicable function) {
+    return new IntStream() {
+      protected boolean forEachWhile(final IntEvaluable sink) {
+        return IntStream.this.forEachWhile(new IntEvaluable() {
+          public boolean eval(int argument) {
+            return sink.eval(function.apply(argument));
+          }
+        });
+      }
+    };
+  }
+
+  /**
+   * Answers a new {@link IntStream} that retrieves the elements of this one
+   * that satisfy the given predicate
+   * 
+   * @param predicate
+   * @return a new {@link IntStream}
+   */
+  public IntStream filter(@NonNull final IntEvaluable predicate) {
+    return new IntStream() {
+      protected boolean forEachWhile(final IntEvaluable sink) {
+        return IntStream.this.forEachWhile(new IntEvaluable() {
+          public boolean eval(int argument) {
+            return !predicate.eval(argument) || sink.eval(argument);
+          }
+        });
+      }
+    };
+  }
+
+  /**
+   * Answers a new {@link LongStream} that retrieves the elements of this one,
+   * converted to {@code long}
+   * 
+   * @return a new {@link LongStream}
+   */
+  public LongStream asLongStream() {
+    return new LongStream() {
+      protected boolean forEachWhile(final LongEvaluable sink) {
+        return IntStream.this.forEachWhile(new IntEvaluable() {
+          public boolean eval(int argument) {
+            return sink.eval(argument);
+          }
+        });
+      }
+    };
+  }
+
+  /**
+   * Answers a new {@link DoubleStream} that retrieves the elements of this one,
+   * converted to {@code double}
+   * 
+   * @return a new {@link DoubleStream}
+   */
+  public DoubleStream asDoubleStream() {
+    return new DoubleStream() {
+      protected boolean forEachWhile(final DoubleEvaluable sink) {
+        return IntStream.this.forEachWhile(new IntEvaluable() {
+          public boolean eval(int argument) {
+            return sink.eval(argument);
+          }
+        });
+      }
+    };
+  }
+
+  /**
+   * Answers a {@link Stream} that retrieves the boxed elements of this one.
+   * This stream is evaluated when this message is sent
+   * 
+   * @return a new {@link Stream}
+   */
+  public Stream<Integer> boxed() {
+    final int[] elements = toArray();
+    return Streams.from(new IntList(elements));
+  }
+
+  /* Reductions */
+
+  /**
+   * Folds the elements of this stream using the given function and initial
+   * value, from left to right
+   * 
+   * @param initial
+   * @param function
+   * @return the folded value
+   */
+  public int fold(int initial, @NonNull final IntApplicable2 function) {
+    final int[] result = { initial };
+    forEachWhile(new IntEvaluable() {
+      public boolean eval(int argument) {
+        result[0] = function.apply(result[0], argument);
+        return true;
+      }
+    });
+    return result[0];
+  }
+
+  /**
+   * Reduces the elements of this stream using the given function, from left to
+   * right
+   * 
+   * @param function
+   * @return the reduced value
+   * @throws EmptySourceException
+   *           if this stream is empty
+   */
+  public int reduce(@NonNull final IntApplicable2 function) throws EmptySourceException {
+    final boolean[] empty = { true };
+    final int[] result = { 0 };
+    forEachWhile(new IntEvaluable() {
+      public boolean eval(int argument) {
+        if (empty[0]) {
+          empty[0] = false;
+          result[0] = argument;
+        } else
+          result[0] = function.apply(result[0], argument);
+        return true;
+      }
+    });
+    if (empty[0])
+      throw new EmptySourceException("Source is empty");
+    return result[0];
+  }
+
+  /**
+   * Answers the sum of the elements of this stream, or zero, if it is empty
+   * 
+   * @return the sum
+   */
+  public int sum() {
+    final int[] result = { 0 };
+    forEachWhile(new IntEvaluable() {
+      public boolean eval(int argument) {
+        result[0] += argument;
+        return true;
+      }
+    });
+    return result[0];
+  }
+
+  /**
+   * Answers the count, sum, minimum, maximum, mean and variance of the
+   * elements of this stream, computed in a single pass, without boxing them
+   * 
+   * @return the statistics of this stream
+   * @since 2.3
+   */
+  public Statistics statistics() {
+    final StatisticsAccumulator accumulator = new StatisticsReduction().newAccumulator();
+    forEachWhile(new IntEvaluable() {
+      public boolean eval(int argument) {
+        accumulator.accumulate(argument);
+        return true;
+      }
+    });
+    return accumulator.value();
+  }
+
+  /**
+   * Answers the arithmetic mean of the elements of this stream
+   * 
+   * @return the average
+   * @throws EmptySourceException
+   *           if this stream is empty
+   */
+  public double average() throws EmptySourceException {
+    final double[] sum = { 0 };
+    final int[] size = { 0 };
+    forEachWhile(new IntEvaluable() {
+      public boolean eval(int argument) {
+        sum[0] += argument;
+        size[0]++;
+        return true;
+      }
+    });
+    if (size[0] == 0)
+      throw new EmptySourceException("Source is empty");
+    return sum[0] / size[0];
+  }
+
+  /**
+   * Answers the minimum element of this stream
+   * 
+   * @return the minimum
+   * @throws EmptySourceException
+   *           if this stream is empty
+   */
+  public int minimum() throws EmptySourceException {
+    return reduce(new IntApplicable2() {
+      public int apply(int arg0, int arg1) {
+        return arg0 <= arg1 ? arg0 : arg1;
+      }
+    });
+  }
+
+  /**
+   * Answers the maximum element of this stream
+   * 
+   * @return the maximum
+   * @throws EmptySourceException
+   *           if this stream is empty
+   */
+  public int maximum() throws EmptySourceException {
+    return reduce(new IntApplicable2() {
+      public int apply(int arg0, int arg1) {
+        return arg0 >= arg1 ? arg0 : arg1;
+      }
+    });
+  }
+
+  /**
+   * Answers the number of elements of this stream
+   * 
+   * @return the size
+   */
+  public int size() {
+    final int[] size = { 0 };
+    forEachWhile(new IntEvaluable() {
+      public boolean eval(int argument) {
+        size[0]++;
+        return true;
+      }
+    });
+    return size[0];
+  }
+
+  /**
+   * Answers if this stream has no elements
+   * 
+   * @return if it is empty
+   */
+  public boolean isEmpty() {
+    return forEachWhile(new IntEvaluable() {
+      public boolean eval(int argument) {
+        return false;
+      }
+    });
+  }
+
+  /**
+   * Answers if any element of this stream satisfies the given predicate
+   * 
+   * @param predicate
+   * @return if any element satisfies it
+   */
+  public boolean any(@NonNull final IntEvaluable predicate) {
+    return !forEachWhile(new IntEvaluable() {
+      public boolean eval(int argument) {
+        return !predicate.eval(argument);
+      }
+    });
+  }
+
+  /**
+   * Answers if all the elements of this stream satisfy the given predicate
+   * 
+   * @param predicate
+   * @return if all elements satisfy it
+   */
+  public boolean all(@NonNull IntEvaluable predicate) {
+    return forEachWhile(predicate);
+  }
+
+  /**
+   * Answers a new array with the elements of this stream
+   * 
+   * @return a new array
+   */
+  public int[] toArray() {
+    final int[][] elements = { new int[16] };
+    final int[] size = { 0 };
+    forEachWhile(new IntEvaluable() {
+      public boolean eval(int argument) {
+        if (size[0] == elements[0].length)
+          elements[0] = Arrays.copyOf(elements[0], size[0] * 2);
+        elements[0][size[0]++] = argument;
+        return true;
+      }
+    });
+    return Arrays.copyOf(elements[0], size[0]);
+  }
+
+  public String toString() {
+    return "IntStream(" + Arrays.toString(toArray()) + ")";
+  }
+
+  private static final class IntList extends AbstractList<Integer> implements RandomAccess {
+    private final int[] elements;
+
+    public IntList(int[] elements) {
+      this.elements = elements;
+    }
+
+    public Integer get(int index) {
+      return elements[index];
+    }
+
+    public int size() {
+      return elements.length;
+    }
+  }
+
+}
@@ -0,0 +1,460 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.stream.primitive;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.RandomAccess;
+
+import net.sf.roggen.collections.EmptySourceException;
+import net.sf.roggen.collections.stream.Stream;
+import net.sf.roggen.collections.stream.Streams;
+import net.sf.roggen.defs.primitive.LongApplicable;
+import net.sf.roggen.defs.primitive.LongApplicable2;
+import net.sf.roggen.defs.primitive.LongEvaluable;
+import net.sf.roggen.defs.primitive.ToLongApplicable;
+import net.sf.roggen.defs.primitive.DoubleEvaluable;
+import net.sf.roggen.reductions.Statistics;
+import net.sf.roggen.reductions.internal.StatisticsReduction;
+import net.sf.roggen.reductions.internal.StatisticsReduction.StatisticsAccumulator;
+import net.sf.roggen.restrictions.check.NonNull;
+
+/**
+ * A lazy sequence of {@code long}s, that - unlike a {@link Stream} of
+ * {@link Long} - does not box its elements.
+ * 
+ * {@link LongStream}s are evaluated by pushing elements through all its
+ * transformations in a single loop, when one of its terminal operations - like
+ * {@link #fold(long, LongApplicable2)}, {@link #sum()} or {@link #toArray()} - is
+ * sent. They are repeatable as long as their source is.
+ * 
+ * @author flbulgarelli
+ * 
+ */
+public abstract class LongStream {
+
+  /**
+   * Sends each element of this stream, in order, to the given sink, until it
+   * answers false
+   * 
+   * @param sink
+   *          the elements receiver
+   * @return false if the sink stopped the traversal, true otherwise
+   */
+  protected abstract boolean forEachWhile(LongEvaluable sink);
+
+  /* Sources */
+
+  /**
+   * Creates a new {@link LongStream} that retrieves the given elements. The
+   * array is not copied
+   * 
+   * @param elements
+   * @return a new {@link LongStream}
+   */
+  public static LongStream from(@NonNull final long... elements) {
+    return new LongStream() {
+      protected boolean forEachWhile(LongEvaluable sink) {
+        for (long element : elements)
+          if (!sink.eval(element))
+            return false;
+        return true;
+      }
+
+      public int size() {
+        return elements.length;
+      }
+
+      public long[] toArray() {
+        return elements.clone();
+      }
+    };
+  }
+
+  /**
+   * Creates a new {@link LongStream} that unboxes the elements of the given
+   * {@link Iterable}
+   * 
+   * @param iterable
+   * @return a new {@link LongStream}
+   */
+  public static LongStream from(@NonNull Iterable<? extends Number> iterable) {
+    return from(iterable, new ToLongApplicable<Number>() {
+      public long apply(Number arg) {
+        return arg.longValue();
+      }
+    });
+  }
+
+  /**
+   * Creates a new {@link LongStream} that retrieves the result of applying the
+   * given function to each element of the given {@link Iterable}
+   * 
+   * @param iterable
+   * @param function
+   * @return a new {@link LongStream}
+   */
+  public static <A> LongStream from(@NonNull final Iterable<A> iterable,
+    @NonNull final ToLongApplicable<? super A> function) {
+    return new LongStream() {
+      protected boolean forEachWhile(LongEvaluable sink) {
+        for (Iterator<A> iter = iterable.iterator(); iter.hasNext();)
+          if (!sink.eval(function.apply(iter.next())))
+            return false;
+        return true;
+      }
+    };
+  }
+
+  /**
+   * Creates a new {@link LongStream} that retrieves the sequence
+   * {@code [start, start+1, start+2..., stop]}
+   * 
+   * @param start
+   *          the initial element of the sequence
+   * @param stop
+   *          the final element of the sequence, inclusive
+   * @return a new {@link LongStream}
+   */
+  public static LongStream enumerate(long start, long stop) {
+    return enumerate(start, stop, 1);
+  }
+
+  /**
+   * Creates a new {@link LongStream} that retrieves the sequence
+   * {@code [start, start+step, start+2*step..., stop]}
+   * 
+   * @param start
+   *          the initial element of the sequence
+   * @param stop
+   *          the final element of the sequence, inclusive
+   * @param step
+   *          the difference between consecutive elements
+   * @return a new {@link LongStream}
+   */
+  public static LongStream enumerate(final long start, long stop, final long step) {
+    final long size = Math.max(0, 1 + (stop - start) / step);
+    return new LongStream() {
+      protected boolean forEachWhile(LongEvaluable sink) {
+        long element = start;
+        for (long i = 0; i < size; i++, element += step)
+          if (!sink.eval(element))
+            return false;
+        return true;
+      }
+
+      public int size() {
+        return (int) size;
+      }
+    };
+  }
+
+  /* Transformations */
+
+  /**
+   * Answers a new {@link LongStream} that retrieves the result of applying the
+   * given function to each element of this one
+   * 
+   * @param function
+   * @return a new {@link LongStream}
+   */
+  public LongStream map(@NonNull final LongApplicable function) {
+    return new LongStream() {
+      protected boolean forEachWhile(final LongEvaluable sink) {
+        return LongStream.this.forEachWhile(new LongEvaluable() {
+          public boolean eval(long argument) {
+            return sink.eval(function.apply(argument));
+          }
+        });
+      }
+    };
+  }
+
+  /**
+   * Answers a new {@link LongStream} that retrieves the elements of this one
+   * that satisfy the given predicate
+   * 
+   * @param predicate
+   * @return a new {@link LongStream}
+   */
+  public LongStream filter(@NonNull final LongEvaluable predicate) {
+    return new LongStream() {
+      protected boolean forEachWhile(final LongEvaluable sink) {
+        return LongStream.this.forEachWhile(new LongEvaluable() {
+          public boolean eval(long argument) {
+            return !predicate.eval(argument) || sink.eval(argument);
+          }
+        });
+      }
+    };
+  }
+
+  /**
+   * Answers a new {@link DoubleStream} that retrieves the elements of this one,
+   * converted to {@code double}
+   * 
+   * @return a new {@link DoubleStream}
+   */
+  public DoubleStream asDoubleStream() {
+    return new DoubleStream() {
+      protected boolean forEachWhile(final DoubleEvaluable sink) {
+        return LongStream.this.forEachWhile(new LongEvaluable() {
+          public boolean eval(long argument) {
+            return sink.eval(argument);
+          }
+        });
+      }
+    };
+  }
+
+  /**
+   * Answers a {@link Stream} that retrieves the boxed elements of this one.
+   * This stream is evaluated when this message is sent
+   * 
+   * @return a new {@link Stream}
+   */
+  public Stream<Long> boxed() {
+    final long[] elements = toArray();
+    return Streams.from(new LongList(elements));
+  }
+
+  /* Reductions */
+
+  /**
+   * Folds the elements of this stream using the given function and initial
+   * value, from left to right
+   * 
+   * @param initial
+   * @param function
+   * @return the folded value
+   */
+  public long fold(long initial, @NonNull final LongApplicable2 function) {
+    final long[] result = { initial };
+    forEachWhile(new LongEvaluable() {
+      public boolean eval(long argument) {
+        result[0] = function.apply(result[0], argument);
+        return true;
+      }
+    });
+    return result[0];
+  }
+
+  /**
+   * Reduces the elements of this stream using the given function, from left to
+   * right
+   * 
+   * @param function
+   * @return the reduced value
+   * @throws EmptySourceException
+   *           if this stream is empty
+   */
+  public long reduce(@NonNull final LongApplicable2 function) throws EmptySourceException {
+    final boolean[] empty = { true };
+    final long[] result = { 0 };
+    forEachWhile(new LongEvaluable() {
+      public boolean eval(long argument) {
+        if (empty[0]) {
+          empty[0] = false;
+          result[0] = argument;
+        } else
+          result[0] = function.apply(result[0], argument);
+        return true;
+      }
+    });
+    if (empty[0])
+      throw new EmptySourceException("Source is empty");
+    return result[0];
+  }
+
+  /**
+   * Answers the sum of the elements of this stream, or zero, if it is empty
+   * 
+   * @return the sum
+   */
+  public long sum() {
+    final long[] result = { 0 };
+    forEachWhile(new LongEvaluable() {
+      public boolean eval(long argument) {
+        result[0] += argument;
+        return true;
+      }
+    });
+    return result[0];
+  }
+
+  /**
+   * Answers the count, sum, minimum, maximum, mean and variance of the
+   * elements of this stream, computed in a single pass, without boxing them
+   * 
+   * @return the statistics of this stream
+   * @since 2.3
+   */
+  public Statistics statistics() {
+    final StatisticsAccumulator accumulator = new StatisticsReduction().newAccumulator();
+    forEachWhile(new LongEvaluable() {
+      public boolean eval(long argument) {
+        accumulator.accumulate(argument);
+        return true;
+      }
+    });
+    return accumulator.value();
+  }
+
+  /**
+   * Answers the arithmetic mean of the elements of this stream
+   * 
+   * @return the average
+   * @throws EmptySourceException
+   *           if this stream is empty
+   */
+  public double average() throws EmptySourceException {
+    final double[] sum = { 0 };
+    final int[] size = { 0 };
+    forEachWhile(new LongEvaluable() {
+      public boolean eval(long argument) {
+        sum[0] += argument;
+        size[0]++;
+        return true;
+      }
+    });
+    if (size[0] == 0)
+      throw new EmptySourceException("Source is empty");
+    return sum[0] / size[0];
+  }
+
+  /**
+   * Answers the minimum element of this stream
+   * 
+   * @return the minimum
+   * @throws EmptySourceException
+   *           if this stream is empty
+   */
+  public long minimum() throws EmptySourceException {
+    return reduce(new LongApplicable2() {
+      public long apply(long arg0, long arg1) {
+        return arg0 <= arg1 ? arg0 : arg1;
+      }
+    });
+  }
+
+  /**
+   * Answers the maximum element of this stream
+   * 
+   * @return the maximum
+   * @throws EmptySourceException
+   *           if this stream is empty
+   */
+  public long maximum() throws EmptySourceException {
+    return reduce(new LongApplicable2() {
+      public long apply(long arg0, long arg1) {
+        return arg0 >= arg1 ? arg0 : arg1;
+      }
+    });
+  }
+
+  /**
+   * Answers the number of elements of this stream
+   * 
+   * @return the size
+   */
+  public int size() {
+    final int[] size = { 0 };
+    forEachWhile(new LongEvaluable() {
+      public boolean eval(long argument) {
+        size[0]++;
+        return true;
+      }
+    });
+    return size[0];
+  }
+
+  /**
+   * Answers if this stream has no elements
+   * 
+   * @return if it is empty
+   */
+  public boolean isEmpty() {
+    return forEachWhile(new LongEvaluable() {
+      public boolean eval(long argument) {
+        return false;
+      }
+    });
+  }
+
+  /**
+   * Answers if any element of this stream satisfies the given predicate
+   * 
+   * @param predicate
+   * @return if any element satisfies it
+   */
+  public boolean any(@NonNull final LongEvaluable predicate) {
+    return !forEachWhile(new LongEvaluable() {
+      public boolean eval(long argument) {
+        return !predicate.eval(argument);
+      }
+    });
+  }
+
+  /**
+   * Answers if all the elements of this stream satisfy the given predicate
+   * 
+   * @param predicate
+   * @return if all elements satisfy it
+   */
+  public boolean all(@NonNull LongEvaluable predicate) {
+    return forEachWhile(predicate);
+  }
+
+  /**
+   * Answers a new array with the elements of this stream
+   * 
+   * @return a new array
+   */
+  public long[] toArray() {
+    final long[][] elements = { new long[16] };
+    final int[] size = { 0 };
+    forEachWhile(new LongEvaluable() {
+      public boolean eval(long argument) {
+        if (size[0] == elements[0].length)
+          elements[0] = Arrays.copyOf(elements[0], size[0] * 2);
+        elements[0][size[0]++] = argument;
+        return true;
+      }
+    });
+    return Arrays.copyOf(elements[0], size[0]);
+  }
+
+  public String toString() {
+    return "LongStream(" + Arrays.toString(toArray()) + ")";
+  }
+
+  private static final class LongList extends AbstractList<Long> implements RandomAccess {
+    private final long[] elements;
+
+    public LongList(long[] elements) {
+      this.elements = elements;
+    }
+
+    public Long get(int index) {
+      return elements[index];
+    }
+
+    public int size() {
+      return elements.length;
+    }
+  }
+
+}
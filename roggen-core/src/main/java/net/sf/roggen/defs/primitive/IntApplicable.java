@@ -0,0 +1,41 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.defs.primitive;
+
+import net.sf.roggen.restrictions.FunctionLikeObject;
+import net.sf.roggen.restrictions.ValueObject;
+
+/**
+ * {@link IntApplicable}s are transformations of an {@code int} argument into
+ * another {@code int}, that do not box them
+ * 
+ * @author flbulgarelli
+ * @see FunctionLikeObject Recomendations for implementing
+ */
+@ValueObject
+@FunctionLikeObject
+public interface IntApplicable {
+
+  /**
+   * Performs a transformation on the given element, and returns its result.
+   * This method <strong>should not</strong> have side effects
+   * 
+   * @param arg
+   *          the transformation argument
+   * @return the transformation result
+   */
+  int apply(int arg);
+
+}
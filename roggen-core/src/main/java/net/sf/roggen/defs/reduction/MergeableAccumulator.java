@@ -0,0 +1,43 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.defs.reduction;
+
+/**
+ * An {@link Accumulator} that can be combined with other accumulator of the
+ * same {@link Reduction}, so that a sequence of elements can be reduced by
+ * parts - for example, in different threads - and then merged.
+ * 
+ * @author flbulgarelli
+ * @param <A>
+ *          the type of the input accumulated value
+ * @param <B>
+ *          the type of the output accumulated value
+ * @since 2.3
+ */
+public interface MergeableAccumulator<A, B> extends Accumulator<A, B> {
+
+  /**
+   * Adds to this accumulator the elements accumulated by the given one, as if
+   * they had been accumulated by this accumulator, after its own elements.
+   * 
+   * The given accumulator must have been created by the same reduction, and
+   * must not be used after merging it.
+   * 
+   * @param other
+   *          the accumulator to merge
+   */
+  void merge(MergeableAccumulator<A, B> other);
+
+}
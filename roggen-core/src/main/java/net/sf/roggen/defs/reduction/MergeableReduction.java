@@ -0,0 +1,41 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.defs.reduction;
+
+import net.sf.roggen.restrictions.check.NonNull;
+
+/**
+ * A {@link Reduction} whose accumulators can be merged, so that it can be
+ * evaluated by parts - for example, by splitting a sequence into chunks that
+ * are reduced in different threads - and then combined. Merging the
+ * accumulators of contiguous parts, in order, must produce the same result
+ * than accumulating every element in a single accumulator.
+ * 
+ * @author flbulgarelli
+ * @param <A>
+ * @param <B>
+ * @since 2.3
+ */
+public interface MergeableReduction<A, B> extends Reduction<A, B> {
+
+  /**
+   * Answers a new, reseted, mergeable accumulator to perform the reduction
+   * 
+   * @return a new, non null, {@link MergeableAccumulator}
+   */
+  @NonNull
+  MergeableAccumulator<A, B> newAccumulator();
+
+}
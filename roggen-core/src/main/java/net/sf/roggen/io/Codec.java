@@ -0,0 +1,57 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.io;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * An object that knows how to write elements of a given type to a binary
+ * output, and read them back.
+ * 
+ * @author flbulgarelli
+ * 
+ * @param <A>
+ *          the type of encoded elements
+ * @see Codecs
+ */
+public interface Codec<A> {
+
+  /**
+   * Writes the given element to the given output
+   * 
+   * @param element
+   *          the element to write
+   * @param output
+   *          the output
+   * @throws IOException
+   *           if the element can not be written
+   */
+  void write(A element, DataOutput output) throws IOException;
+
+  /**
+   * Reads an element from the given input, that was written by
+   * {@link #write(Object, DataOutput)}
+   * 
+   * @param input
+   *          the input
+   * @return the read element
+   * @throws IOException
+   *           if the element can not be read
+   */
+  A read(DataInput input) throws IOException;
+
+}
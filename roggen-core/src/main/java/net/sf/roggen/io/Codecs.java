@@ -0,0 +1,166 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+
+import net.sf.roggen.restrictions.Constant;
+
+/**
+ * Class methods for creating common {@link Codec}s
+ * 
+ * @author flbulgarelli
+ */
+public class Codecs {
+
+  private static final String UTF_8 = "UTF-8";
+  private static final int NULL_LENGTH = -1;
+
+  private Codecs() {}
+
+  /**
+   * Answers a {@link Codec} for strings, that encodes them as UTF-8 bytes.
+   * Null strings are supported.
+   * 
+   * @return a new {@link Codec}
+   */
+  @Constant
+  public static Codec<String> string() {
+    return new Codec<String>() {
+      public void write(String element, DataOutput output) throws IOException {
+        if (element == null)
+          output.writeInt(NULL_LENGTH);
+        else
+          writeBytes(element.getBytes(UTF_8), output);
+      }
+
+      public String read(DataInput input) throws IOException {
+        int length = input.readInt();
+        if (length == NULL_LENGTH)
+          return null;
+        return new String(readBytes(input, length), UTF_8);
+      }
+    };
+  }
+
+  /**
+   * Answers a {@link Codec} for integers
+   * 
+   * @return a new {@link Codec}
+   */
+  @Constant
+  public static Codec<Integer> integer() {
+    return new Codec<Integer>() {
+      public void write(Integer element, DataOutput output) throws IOException {
+        output.writeInt(element);
+      }
+
+      public Integer read(DataInput input) throws IOException {
+        return input.readInt();
+      }
+    };
+  }
+
+  /**
+   * Answers a {@link Codec} for longs
+   * 
+   * @return a new {@link Codec}
+   */
+  @Constant
+  public static Codec<Long> long_() {
+    return new Codec<Long>() {
+      public void write(Long element, DataOutput output) throws IOException {
+        output.writeLong(element);
+      }
+
+      public Long read(DataInput input) throws IOException {
+        return input.readLong();
+      }
+    };
+  }
+
+  /**
+   * Answers a {@link Codec} for doubles
+   * 
+   * @return a new {@link Codec}
+   */
+  @Constant
+  public static Codec<Double> double_() {
+    return new Codec<Double>() {
+      public void write(Double element, DataOutput output) throws IOException {
+        output.writeDouble(element);
+      }
+
+      public Double read(DataInput input) throws IOException {
+        return input.readDouble();
+      }
+    };
+  }
+
+  /**
+   * Answers a {@link Codec} for {@link Serializable} objects, that encodes
+   * them using Java serialization. It is general, but slower and more verbose
+   * than a codec written for a specific type.
+   * 
+   * @param <A>
+   * @return a new {@link Codec}
+   */
+  @Constant
+  public static <A extends Serializable> Codec<A> serializable() {
+    return new Codec<A>() {
+      public void write(A element, DataOutput output) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(element);
+        out.close();
+        writeBytes(bytes.toByteArray(), output);
+      }
+
+      public A read(DataInput input) throws IOException {
+        ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(readBytes(input)));
+        try {
+          return (A) in.readObject();
+        } catch (ClassNotFoundException e) {
+          throw new IOException(e.getMessage(), e);
+        } finally {
+          in.close();
+        }
+      }
+    };
+  }
+
+  private static void writeBytes(byte[] bytes, DataOutput output) throws IOException {
+    output.writeInt(bytes.length);
+    output.write(bytes);
+  }
+
+  private static byte[] readBytes(DataInput input) throws IOException {
+    return readBytes(input, input.readInt());
+  }
+
+  private static byte[] readBytes(DataInput input, int length) throws IOException {
+    byte[] bytes = new byte[length];
+    input.readFully(bytes);
+    return bytes;
+  }
+
+}
@@ -18,21 +18,45 @@ package net.sf.roggen.iterators;
 import java.util.NoSuchElementException;
 
 import net.sf.roggen.iterators.thriter.AdvanceThriterator;
+import net.sf.roggen.iterators.thriter.SplittableThriterator;
 
 /**
  * @author flbulgarelli
  * 
  */
-public abstract class IndexedThriterator<A> extends AdvanceThriterator<A> {
+public abstract class IndexedThriterator<A> extends AdvanceThriterator<A> implements SplittableThriterator<A> {
 
-  private int pos = 0;
+  private int pos;
+  private int fence;
+
+  /**
+   * Creates a new {@link IndexedThriterator} that retrieves every element, up
+   * to {@link #length()}
+   */
+  public IndexedThriterator() {
+    this(0, -1);
+  }
+
+  /**
+   * Creates a new {@link IndexedThriterator} that retrieves the elements
+   * between the given positions
+   * 
+   * @param origin
+   *          the first position, inclusive
+   * @param fence
+   *          the last position, exclusive, or -1, if it is {@link #length()}
+   */
+  protected IndexedThriterator(int origin, int fence) {
+    this.pos = origin;
+    this.fence = fence;
+  }
 
   public final boolean hasNext() {
-    return pos < length();
+    return pos < fence();
   }
 
   public final void advanceNext() throws NoSuchElementException {
-    if (pos == length())
+    if (pos == fence())
       throw new NoSuchElementException();
     pos++;
   }
@@ -41,7 +65,51 @@ public abstract class IndexedThriterator<A> extends AdvanceThriterator<A> {
     return elementAt(pos - 1);
   }
 
+  public final SplittableThriterator<A> trySplit() {
+    int lo = pos;
+    int mid = (lo + bindFence()) >>> 1;
+    if (lo >= mid)
+      return null;
+    pos = mid;
+    return new Slice<A>(this, lo, mid);
+  }
+
+  public final int estimateSize() {
+    return bindFence() - pos;
+  }
+
+  public final boolean hasExactSize() {
+    return true;
+  }
+
+  private int fence() {
+    return fence < 0 ? length() : fence;
+  }
+
+  private int bindFence() {
+    if (fence < 0)
+      fence = length();
+    return fence;
+  }
+
   protected abstract A elementAt(int position);
 
   protected abstract int length();
-}
\ No newline at end of file
+
+  private static final class Slice<A> extends IndexedThriterator<A> {
+    private final IndexedThriterator<A> root;
+
+    public Slice(IndexedThriterator<A> root, int origin, int fence) {
+      super(origin, fence);
+      this.root = root;
+    }
+
+    protected A elementAt(int position) {
+      return root.elementAt(position);
+    }
+
+    protected int length() {
+      return root.length();
+    }
+  }
+}
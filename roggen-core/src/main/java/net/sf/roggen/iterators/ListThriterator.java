@@ -0,0 +1,54 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.iterators;
+
+import java.util.List;
+import java.util.RandomAccess;
+
+import net.sf.roggen.restrictions.check.NonNull;
+
+/**
+ * An {@link IndexedThriterator} over a {@link RandomAccess} {@link List}
+ * 
+ * @author flbulgarelli
+ * 
+ */
+public class ListThriterator<A> extends IndexedThriterator<A> {
+
+  private final List<? extends A> list;
+
+  /**
+   * Creates a new {@link ListThriterator}
+   * 
+   * @param list
+   *          the list to wrap. It should implement {@link RandomAccess}
+   */
+  public ListThriterator(@NonNull List<? extends A> list) {
+    this.list = list;
+  }
+
+  protected A elementAt(int position) {
+    return list.get(position);
+  }
+
+  protected int length() {
+    return list.size();
+  }
+
+  public String toString() {
+    return "ListThriterator(" + list + ")";
+  }
+
+}
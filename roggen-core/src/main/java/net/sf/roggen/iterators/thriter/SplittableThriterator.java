@@ -0,0 +1,55 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.iterators.thriter;
+
+/**
+ * A {@link Thriterator} that can partition its remaining elements, so that
+ * they can be traversed independently - for example, by different threads.
+ *
+ * @author flbulgarelli
+ *
+ * @param <A>
+ *          the type of elements retrieved by this {@link Thriterator}
+ */
+public interface SplittableThriterator<A> extends Thriterator<A> {
+
+  /**
+   * Tries to split the remaining elements of this {@link Thriterator}. If
+   * successful, answers a new {@link SplittableThriterator} that retrieves
+   * the first remaining elements, and this one will retrieve the rest of them.
+   *
+   * After a successful split, {@link #current()} is undefined until
+   * {@link #advanceNext()} is sent.
+   *
+   * @return a thriterator over a prefix of the remaining elements, or null, if
+   *         they can not be split
+   */
+  SplittableThriterator<A> trySplit();
+
+  /**
+   * Answers an estimate of the number of remaining elements
+   *
+   * @return the estimated size, which is exact if {@link #hasExactSize()}
+   */
+  int estimateSize();
+
+  /**
+   * Answers if {@link #estimateSize()} is exact.
+   *
+   * @return if the number of remaining elements is known
+   */
+  boolean hasExactSize();
+
+}
@@ -16,9 +16,14 @@ package net.sf.roggen.reductions;
 
 import net.sf.roggen.defs.Applicable;
 import net.sf.roggen.defs.reduction.Accumulator;
+import net.sf.roggen.defs.reduction.MergeableAccumulator;
+import net.sf.roggen.defs.reduction.MergeableReduction;
 import net.sf.roggen.defs.reduction.Reduction;
 
 /**
+ * Base class for {@link Reduction}s. If the reduction is a
+ * {@link MergeableReduction}, its {@link #then(Applicable)} and
+ * {@link #of(Applicable)} compositions are mergeable too.
  * 
  * @author flbulgarelli
  * 
@@ -29,6 +34,8 @@ public abstract class AbstractReduction<A, B> implements Reduction<A, B> {
 
   @Override
   public final <C> Reduction<A, C> then(final Applicable<B, C> function) {
+    if (this instanceof MergeableReduction)
+      return new MergeableThen<A, B, C>((MergeableReduction<A, B>) this, function);
     return new AbstractReduction<A, C>() {
       public Accumulator<A, C> newAccumulator() {
         final Accumulator<A, B> start = AbstractReduction.this.newAccumulator();
@@ -47,6 +54,8 @@ public abstract class AbstractReduction<A, B> implements Reduction<A, B> {
 
   @Override
   public final <C> Reduction<C, B> of(final Applicable<C, A> function) {
+    if (this instanceof MergeableReduction)
+      return new MergeableOf<C, A, B>((MergeableReduction<A, B>) this, function);
     return new AbstractReduction<C, B>() {
       public Accumulator<C, B> newAccumulator() {
         final Accumulator<A, B> accum = AbstractReduction.this.newAccumulator();
@@ -63,4 +72,74 @@ public abstract class AbstractReduction<A, B> implements Reduction<A, B> {
     };
   }
 
+  private static final class MergeableThen<A, B, C> extends AbstractReduction<A, C> implements
+    MergeableReduction<A, C> {
+    private final MergeableReduction<A, B> reduction;
+    private final Applicable<B, C> function;
+
+    public MergeableThen(MergeableReduction<A, B> reduction, Applicable<B, C> function) {
+      this.reduction = reduction;
+      this.function = function;
+    }
+
+    public MergeableAccumulator<A, C> newAccumulator() {
+      return new ThenAccumulator(reduction.newAccumulator());
+    }
+
+    private final class ThenAccumulator implements MergeableAccumulator<A, C> {
+      private final MergeableAccumulator<A, B> start;
+
+      public ThenAccumulator(MergeableAccumulator<A, B> start) {
+        this.start = start;
+      }
+
+      public void accumulate(A element) {
+        start.accumulate(element);
+      }
+
+      public C value() {
+        return function.apply(start.value());
+      }
+
+      public void merge(MergeableAccumulator<A, C> other) {
+        start.merge(((ThenAccumulator) other).start);
+      }
+    }
+  }
+
+  private static final class MergeableOf<C, A, B> extends AbstractReduction<C, B> implements
+    MergeableReduction<C, B> {
+    private final MergeableReduction<A, B> reduction;
+    private final Applicable<C, A> function;
+
+    public MergeableOf(MergeableReduction<A, B> reduction, Applicable<C, A> function) {
+      this.reduction = reduction;
+      this.function = function;
+    }
+
+    public MergeableAccumulator<C, B> newAccumulator() {
+      return new OfAccumulator(reduction.newAccumulator());
+    }
+
+    private final class OfAccumulator implements MergeableAccumulator<C, B> {
+      private final MergeableAccumulator<A, B> accum;
+
+      public OfAccumulator(MergeableAccumulator<A, B> accum) {
+        this.accum = accum;
+      }
+
+      public void accumulate(C element) {
+        accum.accumulate(function.apply(element));
+      }
+
+      public B value() {
+        return accum.value();
+      }
+
+      public void merge(MergeableAccumulator<C, B> other) {
+        accum.merge(((OfAccumulator) other).accum);
+      }
+    }
+  }
+
 }
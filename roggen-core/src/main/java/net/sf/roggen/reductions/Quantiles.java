@@ -0,0 +1,50 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.reductions;
+
+import java.util.NoSuchElementException;
+
+/**
+ * An approximation of the distribution of a set of elements, that can answer
+ * their quantiles
+ * 
+ * @author flbulgarelli
+ * @since 2.3
+ * @param <A>
+ *          the type of elements
+ * @see Reductions#quantiles(java.util.Comparator, int)
+ */
+public interface Quantiles<A> {
+
+  /**
+   * Answers an element whose rank is approximately {@code fraction} times the
+   * number of elements. For example, {@code quantile(0.5)} answers the median
+   * 
+   * @param fraction
+   *          a value between 0 and 1
+   * @return the estimated quantile
+   * @throws NoSuchElementException
+   *           if there are no elements
+   */
+  A quantile(double fraction) throws NoSuchElementException;
+
+  /**
+   * Answers the number of elements summarized
+   * 
+   * @return the exact number of elements
+   */
+  long size();
+
+}
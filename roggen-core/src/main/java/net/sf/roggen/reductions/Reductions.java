@@ -15,20 +15,37 @@
 
 package net.sf.roggen.reductions;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 
+import net.sf.roggen.check.Ensure;
 import net.sf.roggen.defs.Applicable;
 import net.sf.roggen.defs.Applicable2;
 import net.sf.roggen.defs.Executable;
 import net.sf.roggen.defs.reduction.Accumulator;
+import net.sf.roggen.defs.reduction.MergeableReduction;
 import net.sf.roggen.defs.reduction.Reduction;
 import net.sf.roggen.defs.type.NumberType;
 import net.sf.roggen.lang.Compare;
+import net.sf.roggen.lang.tuple.Pair;
+import net.sf.roggen.lang.tuple.Quadruple;
+import net.sf.roggen.lang.tuple.Triple;
+import net.sf.roggen.numbers.NumberTypes;
+import net.sf.roggen.reductions.internal.All;
 import net.sf.roggen.reductions.internal.Append;
+import net.sf.roggen.reductions.internal.AssociativeFoldl1;
 import net.sf.roggen.reductions.internal.Count;
+import net.sf.roggen.reductions.internal.DoubleSum;
 import net.sf.roggen.reductions.internal.Foldl;
 import net.sf.roggen.reductions.internal.Foldl1;
+import net.sf.roggen.reductions.internal.HyperLogLog;
+import net.sf.roggen.reductions.internal.Kll;
+import net.sf.roggen.reductions.internal.LongSum;
+import net.sf.roggen.reductions.internal.SpaceSaving;
+import net.sf.roggen.reductions.internal.StatisticsReduction;
 import net.sf.roggen.reductions.internal.Sum;
 import net.sf.roggen.restrictions.Constant;
 import net.sf.roggen.restrictions.check.NonNull;
@@ -76,16 +93,45 @@ public class Reductions {
   }
 
   /**
-   * Generic reduction that computes the elements sum
+   * Generic reduction that computes the elements sum. Integer, long and double
+   * sums are accumulated in primitive variables
    * 
    * @param numberType
    *          the type of numbers to be summed
    * @return the elements-sum reduction
    */
   public static <A> Reduction<A, A> sum(@NonNull NumberType<A> numberType) {
+    if (numberType == NumberTypes.integer())
+      return cast(new Sum());
+    if (numberType == NumberTypes.long_())
+      return cast(new LongSum());
+    if (numberType == NumberTypes.double_())
+      return cast(new DoubleSum());
     return from(numberType.zero(), numberType.add());
   }
 
+  /*
+   * Only used once the number type has been checked to be the one summed by
+   * the given reduction
+   */
+  @SuppressWarnings("unchecked")
+  private static <A> Reduction<A, A> cast(Reduction<?, ?> reduction) {
+    return (Reduction<A, A>) reduction;
+  }
+
+  /**
+   * Answers a {@link MergeableReduction} that computes the count, sum,
+   * minimum, maximum, mean and variance of the numbers it processes, in a
+   * single pass. Its state is kept in primitive variables.
+   * 
+   * @return a new statistics reduction
+   * @since 2.3
+   */
+  @Constant
+  public static MergeableReduction<Number, Statistics> statistics() {
+    return new StatisticsReduction();
+  }
+
   /**
    * Integer reduction that computes the sum of the results of applying the
    * given function the elements it processes
@@ -170,7 +216,7 @@ public class Reductions {
    */
   @IgnoreRestrictions
   public static <A> Reduction<A, A> max(@NonNull Comparator<A> comparator) {
-    return from(Compare.max(comparator));
+    return new AssociativeFoldl1<A>(Compare.max(comparator));
   }
 
   /**
@@ -206,7 +252,7 @@ public class Reductions {
    */
   @IgnoreRestrictions
   public static <A> Reduction<A, A> min(Comparator<A> comparator) {
-    return from(Compare.min(comparator));
+    return new AssociativeFoldl1<A>(Compare.min(comparator));
   }
 
   /**
@@ -223,6 +269,197 @@ public class Reductions {
     return min(Compare.on(function));
   }
 
+  /**
+   * Answers a reduction that feeds each element to all the given reductions,
+   * in a single pass, and computes the list of their results.
+   * 
+   * For example:
+   * 
+   * <pre>
+   * stream.groupOn(function, Reductions.all(Reductions.count(), Reductions.max(), Reductions.min()))
+   * </pre>
+   * 
+   * Computes the count, maximum and minimum of each group, traversing
+   * {@code stream} only once. The answered reduction is a
+   * {@link MergeableReduction} if all the given reductions are.
+   * 
+   * @param reductions
+   *          the reductions to compute
+   * @return a new {@link Reduction} whose results are the results of the given
+   *         ones, in the same order
+   * @since 2.3
+   */
+  public static <A> Reduction<A, List<Object>> all(@NonNull Reduction<A, ?>... reductions) {
+    return All.from(Arrays.asList(reductions));
+  }
+
+  /**
+   * Answers a reduction that computes the given two reductions in a single
+   * pass
+   * 
+   * @return a new {@link Reduction} whose result is the pair of results of
+   *         the given ones
+   * @see #all(Reduction...)
+   * @since 2.3
+   */
+  public static <A, B, C> Reduction<A, Pair<B, C>> all(@NonNull Reduction<A, B> first,
+    @NonNull Reduction<A, C> second) {
+    List<Reduction<A, ?>> reductions = new ArrayList<Reduction<A, ?>>(2);
+    reductions.add(first);
+    reductions.add(second);
+    return All.from(reductions).then(new Applicable<List<Object>, Pair<B, C>>() {
+      public Pair<B, C> apply(List<Object> arg) {
+        return new Pair<B, C>(Reductions.<B> result(arg, 0), Reductions.<C> result(arg, 1));
+      }
+    });
+  }
+
+  /**
+   * Answers a reduction that computes the given three reductions in a single
+   * pass
+   * 
+   * @return a new {@link Reduction} whose result is the triple of results of
+   *         the given ones
+   * @see #all(Reduction...)
+   * @since 2.3
+   */
+  public static <A, B, C, D> Reduction<A, Triple<B, C, D>> all(@NonNull Reduction<A, B> first,
+    @NonNull Reduction<A, C> second, @NonNull Reduction<A, D> third) {
+    List<Reduction<A, ?>> reductions = new ArrayList<Reduction<A, ?>>(3);
+    reductions.add(first);
+    reductions.add(second);
+    reductions.add(third);
+    return All.from(reductions).then(new Applicable<List<Object>, Triple<B, C, D>>() {
+      public Triple<B, C, D> apply(List<Object> arg) {
+        return new Triple<B, C, D>(Reductions.<B> result(arg, 0), Reductions.<C> result(arg, 1),
+          Reductions.<D> result(arg, 2));
+      }
+    });
+  }
+
+  /**
+   * Answers a reduction that computes the given four reductions in a single
+   * pass
+   * 
+   * @return a new {@link Reduction} whose result is the quadruple of results
+   *         of the given ones
+   * @see #all(Reduction...)
+   * @since 2.3
+   */
+  public static <A, B, C, D, E> Reduction<A, Quadruple<B, C, D, E>> all(@NonNull Reduction<A, B> first,
+    @NonNull Reduction<A, C> second, @NonNull Reduction<A, D> third, @NonNull Reduction<A, E> fourth) {
+    List<Reduction<A, ?>> reductions = new ArrayList<Reduction<A, ?>>(4);
+    reductions.add(first);
+    reductions.add(second);
+    reductions.add(third);
+    reductions.add(fourth);
+    return All.from(reductions).then(new Applicable<List<Object>, Quadruple<B, C, D, E>>() {
+      public Quadruple<B, C, D, E> apply(List<Object> arg) {
+        return new Quadruple<B, C, D, E>(Reductions.<B> result(arg, 0), Reductions.<C> result(arg, 1),
+          Reductions.<D> result(arg, 2), Reductions.<E> result(arg, 3));
+      }
+    });
+  }
+
+  /*
+   * The results of an All reduction are in the same order than its
+   * reductions, so each one has the result type of the reduction at its index
+   */
+  @SuppressWarnings("unchecked")
+  private static <B> B result(List<Object> results, int index) {
+    return (B) results.get(index);
+  }
+
+  /**
+   * Answers a {@link MergeableReduction} that estimates the number of distinct
+   * elements it processes, using a HyperLogLog sketch of {@code 2^precision}
+   * registers. Its memory is bounded by {@code 2^precision} bytes, and the
+   * relative standard error of the estimate is about
+   * {@code 1.04 / sqrt(2^precision)}. For example, a precision of 14 uses 16KB
+   * and estimates with an error of about 0.8%
+   * 
+   * Elements are distinguished by their {@link Object#hashCode()}
+   * 
+   * @param precision
+   *          a value between 4 and 16
+   * @return a new approximate distinct-count reduction
+   * @since 2.3
+   */
+  public static <A> MergeableReduction<A, Long> distinctCount(int precision) {
+    Ensure.that().isBetween("precision", precision, 4, 16);
+    return new HyperLogLog<A>(precision);
+  }
+
+  /**
+   * Answers a {@link MergeableReduction} that summarizes the distribution of
+   * the elements it processes, so that their quantiles can be estimated with a
+   * rank error of about {@code 1.7 / k}, retaining at most about {@code 3k}
+   * elements, using a KLL sketch
+   * 
+   * @param comparator
+   *          the order of elements
+   * @param k
+   *          the accuracy parameter. 200 is a reasonable default
+   * @return a new approximate quantiles reduction
+   * @since 2.3
+   */
+  public static <A> MergeableReduction<A, Quantiles<A>> quantiles(@NonNull Comparator<? super A> comparator, int k) {
+    Ensure.that().isGreaterThanOrEqualTo("k", k, 2);
+    return new Kll<A>(comparator, k);
+  }
+
+  /**
+   * Answers a {@link MergeableReduction} that summarizes the distribution of
+   * the elements it processes like {@link #quantiles(Comparator, int)}, but
+   * making its random choices with the given seed, so that its estimates are
+   * reproducible
+   * 
+   * @param comparator
+   *          the order of elements
+   * @param k
+   *          the accuracy parameter. 200 is a reasonable default
+   * @param seed
+   *          the seed of the random choices of the sketch
+   * @return a new approximate quantiles reduction
+   * @since 2.3
+   */
+  public static <A> MergeableReduction<A, Quantiles<A>> quantiles(@NonNull Comparator<? super A> comparator, int k,
+    long seed) {
+    Ensure.that().isGreaterThanOrEqualTo("k", k, 2);
+    return new Kll<A>(comparator, k, seed);
+  }
+
+  /**
+   * Answers a {@link MergeableReduction} that summarizes the distribution of
+   * the elements it processes, according to their natural order
+   * 
+   * @return Reductions.quantiles(Compare.natural(), 200)
+   * @see #quantiles(Comparator, int)
+   * @since 2.3
+   */
+  public static <A extends Comparable<A>> MergeableReduction<A, Quantiles<A>> quantiles() {
+    return quantiles(Compare.<A> natural(), 200);
+  }
+
+  /**
+   * Answers a {@link MergeableReduction} that estimates the most frequent
+   * elements it processes and their counts, keeping at most {@code capacity}
+   * counters, using the Space-Saving algorithm. Its result maps each retained
+   * element to an upper bound of its count, from the most frequent to the
+   * least frequent. Counts are overestimated by at most
+   * {@code n / capacity}, where {@code n} is the number of processed elements,
+   * and every element more frequent than that is retained
+   * 
+   * @param capacity
+   *          the maximum number of counters
+   * @return a new approximate heavy-hitters reduction
+   * @since 2.3
+   */
+  public static <A> MergeableReduction<A, Map<A, Long>> heavyHitters(int capacity) {
+    Ensure.that().isGreaterThan("capacity", capacity, 0);
+    return new SpaceSaving<A>(capacity);
+  }
+
   /**
    * Answers a reduction that wraps the given folding with no initial element
    * 
@@ -0,0 +1,121 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.reductions;
+
+/**
+ * A summary of a set of numbers: their count, sum, minimum, maximum, mean and
+ * variance
+ * 
+ * @author flbulgarelli
+ * @since 2.3
+ * @see Reductions#statistics()
+ */
+public final class Statistics {
+
+  private final long count;
+  private final double sum;
+  private final double minimum;
+  private final double maximum;
+  private final double mean;
+  private final double sumOfSquaredDeviations;
+
+  /**
+   * Creates a new {@link Statistics}
+   * 
+   * @param count
+   * @param sum
+   * @param minimum
+   * @param maximum
+   * @param mean
+   * @param sumOfSquaredDeviations
+   *          the sum of the squared differences between each number and the
+   *          mean
+   */
+  public Statistics(long count, double sum, double minimum, double maximum, double mean,
+    double sumOfSquaredDeviations) {
+    this.count = count;
+    this.sum = sum;
+    this.minimum = minimum;
+    this.maximum = maximum;
+    this.mean = mean;
+    this.sumOfSquaredDeviations = sumOfSquaredDeviations;
+  }
+
+  /**
+   * @return the number of numbers
+   */
+  public long count() {
+    return count;
+  }
+
+  /**
+   * @return the sum of the numbers
+   */
+  public double sum() {
+    return sum;
+  }
+
+  /**
+   * @return the minimum number, or {@link Double#NaN} if there are none
+   */
+  public double minimum() {
+    return minimum;
+  }
+
+  /**
+   * @return the maximum number, or {@link Double#NaN} if there are none
+   */
+  public double maximum() {
+    return maximum;
+  }
+
+  /**
+   * @return the arithmetic mean of the numbers, or {@link Double#NaN} if there
+   *         are none
+   */
+  public double mean() {
+    return mean;
+  }
+
+  /**
+   * @return the population variance of the numbers, or {@link Double#NaN} if
+   *         there are none
+   */
+  public double variance() {
+    return count == 0 ? Double.NaN : sumOfSquaredDeviations / count;
+  }
+
+  /**
+   * @return the sample variance of the numbers, or {@link Double#NaN} if there
+   *         are less than two
+   */
+  public double sampleVariance() {
+    return count < 2 ? Double.NaN : sumOfSquaredDeviations / (count - 1);
+  }
+
+  /**
+   * @return the population standard deviation of the numbers
+   */
+  public double standardDeviation() {
+    return Math.sqrt(variance());
+  }
+
+  @Override
+  public String toString() {
+    return "Statistics(count=" + count + ", sum=" + sum + ", minimum=" + minimum + ", maximum=" + maximum
+      + ", mean=" + mean + ", variance=" + variance() + ")";
+  }
+
+}
@@ -0,0 +1,120 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.reductions.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import net.sf.roggen.defs.reduction.Accumulator;
+import net.sf.roggen.defs.reduction.MergeableAccumulator;
+import net.sf.roggen.defs.reduction.MergeableReduction;
+import net.sf.roggen.defs.reduction.Reduction;
+import net.sf.roggen.reductions.AbstractReduction;
+
+/**
+ * Reduction that feeds each element to several reductions, and answers the
+ * list of their results, in the same order. It is only mergeable if all of them
+ * are.
+ * 
+ * @author flbulgarelli
+ * 
+ * @param <A>
+ */
+public class All<A> extends AbstractReduction<A, List<Object>> {
+  private final List<Reduction<A, ?>> reductions;
+
+  /**
+   * Answers a new {@link All} reduction, that is a {@link MergeableReduction}
+   * if all the given reductions are
+   * 
+   * @param reductions
+   * @return a new reduction
+   */
+  public static <A> All<A> from(List<? extends Reduction<A, ?>> reductions) {
+    List<Reduction<A, ?>> copy = new ArrayList<Reduction<A, ?>>(reductions);
+    for (Reduction<A, ?> reduction : copy)
+      if (!(reduction instanceof MergeableReduction))
+        return new All<A>(copy);
+    return new MergeableAll<A>(copy);
+  }
+
+  private All(List<Reduction<A, ?>> reductions) {
+    this.reductions = reductions;
+  }
+
+  public Accumulator<A, List<Object>> newAccumulator() {
+    return new AllAccumulator<A>(newAccumulators());
+  }
+
+  protected final List<Accumulator<A, ?>> newAccumulators() {
+    List<Accumulator<A, ?>> accumulators = new ArrayList<Accumulator<A, ?>>(reductions.size());
+    for (Reduction<A, ?> reduction : reductions)
+      accumulators.add(reduction.newAccumulator());
+    return accumulators;
+  }
+
+  private static class AllAccumulator<A> implements Accumulator<A, List<Object>> {
+    protected final List<Accumulator<A, ?>> accumulators;
+
+    public AllAccumulator(List<Accumulator<A, ?>> accumulators) {
+      this.accumulators = accumulators;
+    }
+
+    public void accumulate(A element) {
+      for (Accumulator<A, ?> accumulator : accumulators)
+        accumulator.accumulate(element);
+    }
+
+    public List<Object> value() {
+      Object[] values = new Object[accumulators.size()];
+      for (int i = 0; i < values.length; i++)
+        values[i] = accumulators.get(i).value();
+      return Arrays.asList(values);
+    }
+  }
+
+  private static final class MergeableAllAccumulator<A> extends AllAccumulator<A> implements
+    MergeableAccumulator<A, List<Object>> {
+    public MergeableAllAccumulator(List<Accumulator<A, ?>> accumulators) {
+      super(accumulators);
+    }
+
+    public void merge(MergeableAccumulator<A, List<Object>> other) {
+      List<Accumulator<A, ?>> others = ((MergeableAllAccumulator<A>) other).accumulators;
+      for (int i = 0; i < accumulators.size(); i++)
+        merge(accumulators.get(i), others.get(i));
+    }
+
+    /*
+     * Accumulators at the same index were created by the same reduction, so
+     * they share their result type
+     */
+    @SuppressWarnings("unchecked")
+    private static <A, B> void merge(Accumulator<A, B> accumulator, Accumulator<A, ?> other) {
+      ((MergeableAccumulator<A, B>) accumulator).merge((MergeableAccumulator<A, B>) other);
+    }
+  }
+
+  private static final class MergeableAll<A> extends All<A> implements MergeableReduction<A, List<Object>> {
+    public MergeableAll(List<Reduction<A, ?>> reductions) {
+      super(reductions);
+    }
+
+    public MergeableAccumulator<A, List<Object>> newAccumulator() {
+      return new MergeableAllAccumulator<A>(newAccumulators());
+    }
+  }
+}
@@ -18,7 +18,8 @@ import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 
-import net.sf.roggen.defs.reduction.Accumulator;
+import net.sf.roggen.defs.reduction.MergeableAccumulator;
+import net.sf.roggen.defs.reduction.MergeableReduction;
 import net.sf.roggen.reductions.AbstractReduction;
 
 /**
@@ -28,9 +29,9 @@ import net.sf.roggen.reductions.AbstractReduction;
  * 
  * @param <A>
  */
-public final class Append<A> extends AbstractReduction<A, List<A>> {
-  public Accumulator<A, List<A>> newAccumulator() {
-    return new Accumulator<A, List<A>>() {
+public final class Append<A> extends AbstractReduction<A, List<A>> implements MergeableReduction<A, List<A>> {
+  public MergeableAccumulator<A, List<A>> newAccumulator() {
+    return new MergeableAccumulator<A, List<A>>() {
       private List<A> list = new LinkedList<A>();
 
       public void accumulate(A element) {
@@ -40,6 +41,10 @@ public final class Append<A> extends AbstractReduction<A, List<A>> {
       public List<A> value() {
         return Collections.unmodifiableList(list);
       }
+
+      public void merge(MergeableAccumulator<A, List<A>> other) {
+        list.addAll(other.value());
+      }
     };
   }
 }
\ No newline at end of file
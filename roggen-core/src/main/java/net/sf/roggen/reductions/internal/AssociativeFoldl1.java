@@ -0,0 +1,73 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.reductions.internal;
+
+import java.util.NoSuchElementException;
+
+import net.sf.roggen.defs.Applicable2;
+import net.sf.roggen.defs.reduction.MergeableAccumulator;
+import net.sf.roggen.defs.reduction.MergeableReduction;
+import net.sf.roggen.reductions.AbstractReduction;
+
+/**
+ * Reduction that performs no-initial-element folding using an associative
+ * function, so that its accumulators can be merged - like those of
+ * {@link net.sf.roggen.reductions.Reductions#max()} and
+ * {@link net.sf.roggen.reductions.Reductions#min()}
+ * 
+ * @author flbulgarelli
+ * 
+ * @param <A>
+ */
+public final class AssociativeFoldl1<A> extends AbstractReduction<A, A> implements MergeableReduction<A, A> {
+  private final Applicable2<? super A, ? super A, ? extends A> function;
+
+  /**
+   * @param function
+   *          an associative folding function
+   */
+  public AssociativeFoldl1(Applicable2<? super A, ? super A, ? extends A> function) {
+    this.function = function;
+  }
+
+  public MergeableAccumulator<A, A> newAccumulator() {
+    return new AssociativeFoldl1Accumulator();
+  }
+
+  private final class AssociativeFoldl1Accumulator implements MergeableAccumulator<A, A> {
+    private A i;
+    private boolean init;
+
+    public void accumulate(A element) {
+      if (!init) {
+        i = element;
+        init = true;
+      } else
+        i = function.apply(i, element);
+    }
+
+    public A value() {
+      if (!init)
+        throw new NoSuchElementException();
+      return i;
+    }
+
+    public void merge(MergeableAccumulator<A, A> other) {
+      AssociativeFoldl1Accumulator that = (AssociativeFoldl1Accumulator) other;
+      if (that.init)
+        accumulate(that.i);
+    }
+  }
+}
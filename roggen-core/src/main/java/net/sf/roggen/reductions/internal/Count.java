@@ -14,7 +14,8 @@
 
 package net.sf.roggen.reductions.internal;
 
-import net.sf.roggen.defs.reduction.Accumulator;
+import net.sf.roggen.defs.reduction.MergeableAccumulator;
+import net.sf.roggen.defs.reduction.MergeableReduction;
 import net.sf.roggen.reductions.AbstractReduction;
 
 /**
@@ -24,9 +25,9 @@ import net.sf.roggen.reductions.AbstractReduction;
  * 
  * @param <A>
  */
-public final class Count<A> extends AbstractReduction<A, Integer> {
-  public Accumulator<A, Integer> newAccumulator() {
-    return new Accumulator<A, Integer>() {
+public final class Count<A> extends AbstractReduction<A, Integer> implements MergeableReduction<A, Integer> {
+  public MergeableAccumulator<A, Integer> newAccumulator() {
+    return new MergeableAccumulator<A, Integer>() {
       private int i = 0;
 
       public void accumulate(A element) {
@@ -36,6 +37,10 @@ public final class Count<A> extends AbstractReduction<A, Integer> {
       public Integer value() {
         return i;
       }
+
+      public void merge(MergeableAccumulator<A, Integer> other) {
+        i += other.value();
+      }
     };
   }
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.reductions.internal;
+
+import net.sf.roggen.defs.reduction.MergeableAccumulator;
+import net.sf.roggen.defs.reduction.MergeableReduction;
+import net.sf.roggen.reductions.AbstractReduction;
+
+/**
+ * Reduction that performs double sum, over a primitive double
+ * 
+ * @author flbulgarelli
+ */
+public final class DoubleSum extends AbstractReduction<Double, Double> implements MergeableReduction<Double, Double> {
+  public MergeableAccumulator<Double, Double> newAccumulator() {
+    return new MergeableAccumulator<Double, Double>() {
+      private double i = 0;
+
+      public void accumulate(Double element) {
+        i += element;
+      }
+
+      public Double value() {
+        return i;
+      }
+
+      public void merge(MergeableAccumulator<Double, Double> other) {
+        i += other.value();
+      }
+    };
+  }
+}
@@ -0,0 +1,109 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.reductions.internal;
+
+import net.sf.roggen.defs.reduction.MergeableAccumulator;
+import net.sf.roggen.defs.reduction.MergeableReduction;
+import net.sf.roggen.reductions.AbstractReduction;
+
+/**
+ * Reduction that estimates the number of distinct elements it processes,
+ * using a <a href="http://en.wikipedia.org/wiki/HyperLogLog">HyperLogLog</a>
+ * sketch of {@code 2^precision} registers. Elements are hashed using their
+ * {@link Object#hashCode()}, so elements with equal hashes are counted once.
+ * 
+ * The relative standard error of the estimate is about
+ * {@code 1.04 / sqrt(2^precision)}
+ * 
+ * @author flbulgarelli
+ * 
+ * @param <A>
+ */
+public final class HyperLogLog<A> extends AbstractReduction<A, Long> implements MergeableReduction<A, Long> {
+  private final int precision;
+
+  /**
+   * @param precision
+   *          the base-2 logarithm of the number of registers
+   */
+  public HyperLogLog(int precision) {
+    this.precision = precision;
+  }
+
+  public MergeableAccumulator<A, Long> newAccumulator() {
+    return new HyperLogLogAccumulator();
+  }
+
+  private final class HyperLogLogAccumulator implements MergeableAccumulator<A, Long> {
+    private final byte[] registers = new byte[1 << precision];
+
+    public void accumulate(A element) {
+      long hash = hash(element == null ? 0 : element.hashCode());
+      int index = (int) (hash >>> (64 - precision));
+      byte rank = (byte) (Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1);
+      if (rank > registers[index])
+        registers[index] = rank;
+    }
+
+    public Long value() {
+      int m = registers.length;
+      double sum = 0;
+      int zeros = 0;
+      for (byte register : registers) {
+        sum += 1.0 / (1L << register);
+        if (register == 0)
+          zeros++;
+      }
+      double estimate = alpha(m) * m * m / sum;
+      if (estimate <= 2.5 * m && zeros != 0)
+        estimate = m * Math.log((double) m / zeros);
+      return Math.round(estimate);
+    }
+
+    public void merge(MergeableAccumulator<A, Long> other) {
+      byte[] others = ((HyperLogLogAccumulator) other).registers;
+      for (int i = 0; i < registers.length; i++)
+        if (others[i] > registers[i])
+          registers[i] = others[i];
+    }
+  }
+
+  private static double alpha(int m) {
+    switch (m) {
+    case 16:
+      return 0.673;
+    case 32:
+      return 0.697;
+    case 64:
+      return 0.709;
+    default:
+      return 0.7213 / (1 + 1.079 / m);
+    }
+  }
+
+  /**
+   * Spreads the bits of the given hash code over a long, using the MurmurHash3
+   * finalizer
+   */
+  private static long hash(int hashCode) {
+    long h = hashCode;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+}
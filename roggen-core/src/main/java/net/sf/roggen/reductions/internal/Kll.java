@@ -0,0 +1,214 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.reductions.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import net.sf.roggen.check.Ensure;
+import net.sf.roggen.defs.reduction.MergeableAccumulator;
+import net.sf.roggen.defs.reduction.MergeableReduction;
+import net.sf.roggen.reductions.AbstractReduction;
+import net.sf.roggen.reductions.Quantiles;
+
+/**
+ * Reduction that summarizes the distribution of the elements it processes
+ * using a KLL sketch: a hierarchy of compactors, where each element of level
+ * {@code h} stands for {@code 2^h} elements. When a level exceeds its
+ * capacity it is sorted and a random half of it is promoted to the next level.
+ * The capacity of the top level is {@code k}, and capacities of lower levels
+ * decrease geometrically, so memory is bounded by about {@code 3k} elements.
+ * 
+ * The rank error of answered quantiles is about {@code 1.7 / k}
+ * 
+ * @author flbulgarelli
+ * 
+ * @param <A>
+ */
+public final class Kll<A> extends AbstractReduction<A, Quantiles<A>> implements
+  MergeableReduction<A, Quantiles<A>> {
+  private static final double DECAY = 2.0 / 3;
+  private static final int MIN_CAPACITY = 2;
+
+  private final Comparator<? super A> comparator;
+  private final int k;
+  private final long seed;
+
+  /**
+   * @param comparator
+   *          the order of elements
+   * @param k
+   *          the capacity of the top compactor
+   */
+  public Kll(Comparator<? super A> comparator, int k) {
+    this(comparator, k, new Random().nextLong());
+  }
+
+  /**
+   * @param comparator
+   *          the order of elements
+   * @param k
+   *          the capacity of the top compactor
+   * @param seed
+   *          the seed of the random choices of compactions, so that sketches
+   *          of the same elements are reproducible
+   */
+  public Kll(Comparator<? super A> comparator, int k, long seed) {
+    this.comparator = comparator;
+    this.k = k;
+    this.seed = seed;
+  }
+
+  public MergeableAccumulator<A, Quantiles<A>> newAccumulator() {
+    return new KllAccumulator();
+  }
+
+  private final class KllAccumulator implements MergeableAccumulator<A, Quantiles<A>> {
+    private final List<List<A>> levels = new ArrayList<List<A>>();
+    private final Random random = new Random(seed);
+    private long size;
+    private int retained;
+    private int[] capacities;
+    private int totalCapacity;
+
+    public KllAccumulator() {
+      addLevel();
+    }
+
+    public void accumulate(A element) {
+      levels.get(0).add(element);
+      size++;
+      retained++;
+      compress();
+    }
+
+    public void merge(MergeableAccumulator<A, Quantiles<A>> other) {
+      KllAccumulator that = (KllAccumulator) other;
+      for (int h = 0; h < that.levels.size(); h++) {
+        if (h == levels.size())
+          addLevel();
+        levels.get(h).addAll(that.levels.get(h));
+      }
+      size += that.size;
+      retained += that.retained;
+      compress();
+    }
+
+    /**
+     * Adds a new top level, and recomputes the capacities of all levels, which
+     * only depend on their depth
+     */
+    private void addLevel() {
+      levels.add(new ArrayList<A>());
+      int height = levels.size();
+      capacities = new int[height];
+      totalCapacity = 0;
+      for (int h = 0; h < height; h++) {
+        capacities[h] = Math.max(MIN_CAPACITY, (int) Math.ceil(k * Math.pow(DECAY, height - h - 1)));
+        totalCapacity += capacities[h];
+      }
+    }
+
+    private void compress() {
+      while (retained > totalCapacity)
+        for (int h = 0; h < levels.size(); h++) {
+          if (levels.get(h).size() >= capacities[h]) {
+            compact(h);
+            break;
+          }
+        }
+    }
+
+    /**
+     * Promotes every other element of the sorted level to the next one,
+     * starting at a random offset. If the level has an odd size, its last
+     * element is kept
+     */
+    private void compact(int h) {
+      if (h + 1 == levels.size())
+        addLevel();
+      List<A> level = levels.get(h);
+      List<A> next = levels.get(h + 1);
+      Collections.sort(level, comparator);
+      boolean odd = level.size() % 2 == 1;
+      A last = odd ? level.remove(level.size() - 1) : null;
+      int even = level.size();
+      for (int i = random.nextInt(2); i < even; i += 2)
+        next.add(level.get(i));
+      level.clear();
+      if (odd)
+        level.add(last);
+      retained -= even / 2;
+    }
+
+    public Quantiles<A> value() {
+      List<A> items = new ArrayList<A>(retained);
+      List<Long> weights = new ArrayList<Long>(retained);
+      for (int h = 0; h < levels.size(); h++)
+        for (A item : levels.get(h)) {
+          items.add(item);
+          weights.add(1L << h);
+        }
+      return new SketchQuantiles<A>(items, weights, size, comparator);
+    }
+  }
+
+  private static final class SketchQuantiles<A> implements Quantiles<A> {
+    private final Object[] items;
+    private final long[] cumulativeWeights;
+    private final long size;
+
+    public SketchQuantiles(final List<A> items, List<Long> weights, long size,
+      final Comparator<? super A> comparator) {
+      Integer[] order = new Integer[items.size()];
+      for (int i = 0; i < order.length; i++)
+        order[i] = i;
+      Arrays.sort(order, new Comparator<Integer>() {
+        public int compare(Integer o1, Integer o2) {
+          return comparator.compare(items.get(o1), items.get(o2));
+        }
+      });
+      this.items = new Object[order.length];
+      this.cumulativeWeights = new long[order.length];
+      long cumulative = 0;
+      for (int i = 0; i < order.length; i++) {
+        this.items[i] = items.get(order[i]);
+        cumulative += weights.get(order[i]);
+        this.cumulativeWeights[i] = cumulative;
+      }
+      this.size = size;
+    }
+
+    public A quantile(double fraction) {
+      Ensure.that().isBetween("fraction", fraction, 0.0, 1.0);
+      if (items.length == 0)
+        throw new NoSuchElementException();
+      double target = fraction * cumulativeWeights[items.length - 1];
+      for (int i = 0; i < items.length; i++)
+        if (cumulativeWeights[i] >= target)
+          return (A) items[i];
+      return (A) items[items.length - 1];
+    }
+
+    public long size() {
+      return size;
+    }
+  }
+}
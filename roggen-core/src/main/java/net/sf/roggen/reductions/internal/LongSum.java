@@ -0,0 +1,44 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.reductions.internal;
+
+import net.sf.roggen.defs.reduction.MergeableAccumulator;
+import net.sf.roggen.defs.reduction.MergeableReduction;
+import net.sf.roggen.reductions.AbstractReduction;
+
+/**
+ * Reduction that performs long sum, over a primitive long
+ * 
+ * @author flbulgarelli
+ */
+public final class LongSum extends AbstractReduction<Long, Long> implements MergeableReduction<Long, Long> {
+  public MergeableAccumulator<Long, Long> newAccumulator() {
+    return new MergeableAccumulator<Long, Long>() {
+      private long i = 0;
+
+      public void accumulate(Long element) {
+        i += element;
+      }
+
+      public Long value() {
+        return i;
+      }
+
+      public void merge(MergeableAccumulator<Long, Long> other) {
+        i += other.value();
+      }
+    };
+  }
+}
@@ -0,0 +1,226 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.reductions.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import net.sf.roggen.defs.reduction.MergeableAccumulator;
+import net.sf.roggen.defs.reduction.MergeableReduction;
+import net.sf.roggen.reductions.AbstractReduction;
+
+/**
+ * Reduction that estimates the most frequent elements it processes using the
+ * Space-Saving algorithm: it keeps at most {@code capacity} counters, and when
+ * a new element arrives and there is no free counter, the one with the minimum
+ * count is reassigned to it. Counts are overestimated by at most
+ * {@code n / capacity}, and every element whose frequency exceeds that bound is
+ * retained.
+ * 
+ * Counters are kept in a Stream-Summary: a list of buckets of counters with the
+ * same count, sorted by count, so that both incrementing a counter and finding
+ * the minimum one take constant time.
+ * 
+ * @author flbulgarelli
+ * 
+ * @param <A>
+ */
+public final class SpaceSaving<A> extends AbstractReduction<A, Map<A, Long>> implements
+  MergeableReduction<A, Map<A, Long>> {
+  private final int capacity;
+
+  /**
+   * @param capacity
+   *          the maximum number of counters
+   */
+  public SpaceSaving(int capacity) {
+    this.capacity = capacity;
+  }
+
+  public MergeableAccumulator<A, Map<A, Long>> newAccumulator() {
+    return new SpaceSavingAccumulator();
+  }
+
+  private final class SpaceSavingAccumulator implements MergeableAccumulator<A, Map<A, Long>> {
+    private final Map<A, Counter<A>> counters = new HashMap<A, Counter<A>>();
+    private Bucket<A> min;
+    private Bucket<A> max;
+
+    public void accumulate(A element) {
+      Counter<A> counter = counters.get(element);
+      if (counter != null)
+        increment(counter);
+      else if (counters.size() < capacity) {
+        counter = new Counter<A>(element);
+        counters.put(element, counter);
+        if (min == null || min.count != 1)
+          insertAfter(null, new Bucket<A>(1));
+        min.add(counter);
+      } else {
+        counter = min.first;
+        counters.remove(counter.element);
+        counter.element = element;
+        counters.put(element, counter);
+        increment(counter);
+      }
+    }
+
+    private void increment(Counter<A> counter) {
+      Bucket<A> bucket = counter.bucket;
+      Bucket<A> next = bucket.next;
+      if (next == null || next.count != bucket.count + 1) {
+        next = new Bucket<A>(bucket.count + 1);
+        insertAfter(bucket, next);
+      }
+      bucket.remove(counter);
+      if (bucket.first == null)
+        unlink(bucket);
+      next.add(counter);
+    }
+
+    private void insertAfter(Bucket<A> previous, Bucket<A> bucket) {
+      Bucket<A> next = previous == null ? min : previous.next;
+      bucket.previous = previous;
+      bucket.next = next;
+      if (previous == null)
+        min = bucket;
+      else
+        previous.next = bucket;
+      if (next == null)
+        max = bucket;
+      else
+        next.previous = bucket;
+    }
+
+    private void unlink(Bucket<A> bucket) {
+      if (bucket.previous == null)
+        min = bucket.next;
+      else
+        bucket.previous.next = bucket.next;
+      if (bucket.next == null)
+        max = bucket.previous;
+      else
+        bucket.next.previous = bucket.previous;
+    }
+
+    /**
+     * Merges the given accumulator. The count of an element missing from a full
+     * summary is assumed to be the minimum count of that summary
+     */
+    public void merge(MergeableAccumulator<A, Map<A, Long>> other) {
+      SpaceSavingAccumulator that = (SpaceSavingAccumulator) other;
+      Map<A, Long> counts = value();
+      Map<A, Long> others = that.value();
+      long missing = missingCount();
+      long othersMissing = that.missingCount();
+      Map<A, Long> merged = new LinkedHashMap<A, Long>();
+      for (Entry<A, Long> entry : counts.entrySet()) {
+        Long otherCount = others.get(entry.getKey());
+        merged.put(entry.getKey(), entry.getValue() + (otherCount != null ? otherCount : othersMissing));
+      }
+      for (Entry<A, Long> entry : others.entrySet())
+        if (!counts.containsKey(entry.getKey()))
+          merged.put(entry.getKey(), entry.getValue() + missing);
+      List<Entry<A, Long>> entries = sortedEntries(merged);
+      counters.clear();
+      min = null;
+      max = null;
+      for (Entry<A, Long> entry : entries.subList(0, Math.min(capacity, entries.size()))) {
+        Counter<A> counter = new Counter<A>(entry.getKey());
+        counters.put(entry.getKey(), counter);
+        if (min == null || min.count != entry.getValue())
+          insertAfter(null, new Bucket<A>(entry.getValue()));
+        min.add(counter);
+      }
+    }
+
+    private long missingCount() {
+      return counters.size() < capacity ? 0 : min.count;
+    }
+
+    /**
+     * Answers the estimated counts of the retained elements, from the most
+     * frequent to the least frequent
+     */
+    public Map<A, Long> value() {
+      Map<A, Long> value = new LinkedHashMap<A, Long>();
+      for (Bucket<A> bucket = max; bucket != null; bucket = bucket.previous)
+        for (Counter<A> counter = bucket.first; counter != null; counter = counter.next)
+          value.put(counter.element, bucket.count);
+      return Collections.unmodifiableMap(value);
+    }
+  }
+
+  private static <A> List<Entry<A, Long>> sortedEntries(Map<A, Long> counters) {
+    List<Entry<A, Long>> entries = new ArrayList<Entry<A, Long>>(counters.entrySet());
+    Collections.sort(entries, new Comparator<Entry<A, Long>>() {
+      public int compare(Entry<A, Long> o1, Entry<A, Long> o2) {
+        return o2.getValue().compareTo(o1.getValue());
+      }
+    });
+    return entries;
+  }
+
+  private static final class Bucket<A> {
+    private final long count;
+    private Bucket<A> previous;
+    private Bucket<A> next;
+    private Counter<A> first;
+    private Counter<A> last;
+
+    public Bucket(long count) {
+      this.count = count;
+    }
+
+    public void add(Counter<A> counter) {
+      counter.bucket = this;
+      counter.previous = last;
+      counter.next = null;
+      if (last == null)
+        first = counter;
+      else
+        last.next = counter;
+      last = counter;
+    }
+
+    public void remove(Counter<A> counter) {
+      if (counter.previous == null)
+        first = counter.next;
+      else
+        counter.previous.next = counter.next;
+      if (counter.next == null)
+        last = counter.previous;
+      else
+        counter.next.previous = counter.previous;
+    }
+  }
+
+  private static final class Counter<A> {
+    private A element;
+    private Bucket<A> bucket;
+    private Counter<A> previous;
+    private Counter<A> next;
+
+    public Counter(A element) {
+      this.element = element;
+    }
+  }
+}
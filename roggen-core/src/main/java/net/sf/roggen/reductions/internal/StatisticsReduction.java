@@ -0,0 +1,103 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.reductions.internal;
+
+import net.sf.roggen.defs.reduction.MergeableAccumulator;
+import net.sf.roggen.defs.reduction.MergeableReduction;
+import net.sf.roggen.reductions.AbstractReduction;
+import net.sf.roggen.reductions.Statistics;
+
+/**
+ * Reduction that computes the count, sum, minimum, maximum, mean and variance
+ * of numbers in a single pass, using Welford's algorithm. Its state is kept in
+ * primitive fields, and a {@link Statistics} is only created when its value is
+ * requested
+ * 
+ * @author flbulgarelli
+ */
+public final class StatisticsReduction extends AbstractReduction<Number, Statistics> implements
+  MergeableReduction<Number, Statistics> {
+
+  public StatisticsAccumulator newAccumulator() {
+    return new StatisticsAccumulator();
+  }
+
+  /**
+   * A {@link MergeableAccumulator} of {@link Statistics} that can also
+   * accumulate unboxed numbers
+   * 
+   * @author flbulgarelli
+   */
+  public static final class StatisticsAccumulator implements MergeableAccumulator<Number, Statistics> {
+    private long count;
+    private double sum;
+    private double minimum = Double.NaN;
+    private double maximum = Double.NaN;
+    private double mean;
+    private double sumOfSquaredDeviations;
+
+    public void accumulate(Number element) {
+      accumulate(element.doubleValue());
+    }
+
+    /**
+     * Accumulates the given unboxed number
+     * 
+     * @param element
+     */
+    public void accumulate(double element) {
+      if (count == 0) {
+        minimum = element;
+        maximum = element;
+      } else {
+        minimum = Math.min(minimum, element);
+        maximum = Math.max(maximum, element);
+      }
+      count++;
+      sum += element;
+      double delta = element - mean;
+      mean += delta / count;
+      sumOfSquaredDeviations += delta * (element - mean);
+    }
+
+    /**
+     * Merges the given accumulator, combining means and deviations as described
+     * by Chan et al.
+     */
+    public void merge(MergeableAccumulator<Number, Statistics> other) {
+      StatisticsAccumulator that = (StatisticsAccumulator) other;
+      if (that.count == 0)
+        return;
+      if (count == 0) {
+        minimum = that.minimum;
+        maximum = that.maximum;
+      } else {
+        minimum = Math.min(minimum, that.minimum);
+        maximum = Math.max(maximum, that.maximum);
+      }
+      long total = count + that.count;
+      double delta = that.mean - mean;
+      mean += delta * that.count / total;
+      sumOfSquaredDeviations += that.sumOfSquaredDeviations + delta * delta * count * that.count / total;
+      sum += that.sum;
+      count = total;
+    }
+
+    public Statistics value() {
+      return new Statistics(count, sum, minimum, maximum, count == 0 ? Double.NaN : mean, sumOfSquaredDeviations);
+    }
+  }
+
+}
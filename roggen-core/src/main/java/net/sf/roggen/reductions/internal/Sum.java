@@ -14,7 +14,8 @@
 
 package net.sf.roggen.reductions.internal;
 
-import net.sf.roggen.defs.reduction.Accumulator;
+import net.sf.roggen.defs.reduction.MergeableAccumulator;
+import net.sf.roggen.defs.reduction.MergeableReduction;
 import net.sf.roggen.reductions.AbstractReduction;
 
 /**
@@ -22,9 +23,9 @@ import net.sf.roggen.reductions.AbstractReduction;
  * 
  * @author flbulgarelli
  */
-public final class Sum extends AbstractReduction<Integer, Integer> {
-  public Accumulator<Integer, Integer> newAccumulator() {
-    return new Accumulator<Integer, Integer>() {
+public final class Sum extends AbstractReduction<Integer, Integer> implements MergeableReduction<Integer, Integer> {
+  public MergeableAccumulator<Integer, Integer> newAccumulator() {
+    return new MergeableAccumulator<Integer, Integer>() {
       private int i = 0;
 
       public void accumulate(Integer element) {
@@ -34,6 +35,10 @@ public final class Sum extends AbstractReduction<Integer, Integer> {
       public Integer value() {
         return i;
       }
+
+      public void merge(MergeableAccumulator<Integer, Integer> other) {
+        i += other.value();
+      }
     };
   }
 }
\ No newline at end of file
@@ -31,6 +31,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 
@@ -314,6 +315,28 @@ public class AbstractStreamBasicTest {
     assertEquals(stream.third(), stream.third());
   }
 
+  /**
+   * Tests that memoized streams evaluate each element only once, across
+   * iterations, and preserve order across chunk boundaries
+   */
+  @Test
+  public void testMemoizeEvaluatesOnce() throws Exception {
+    final int[] applications = new int[1];
+    Stream<Integer> stream = Streams.enumerate(0, 999).map(new AbstractFunction<Integer, Integer>() {
+      public Integer apply(Integer arg) {
+        applications[0]++;
+        return arg * 2;
+      }
+    }).memoize();
+    assertEquals((Integer) 20, stream.get(10));
+    assertEquals(1, applications[0]);
+    assertEquals(1000, stream.toList().size());
+    assertEquals(1000, applications[0]);
+    assertEquals(stream.toList(), stream.toList());
+    assertEquals((Integer) 1998, stream.last());
+    assertEquals(1000, applications[0]);
+  }
+
   /** Test for {@link Stream#streamPartition(Evaluable)} */
   @Test
   public void testPartition() throws Exception {
@@ -392,6 +415,42 @@ public class AbstractStreamBasicTest {
     assertEquals(i(2 + 2 + 5), mapReduce.get(i(2)));
   }
 
+  /**
+   * Test for {@link AbstractStream#window(int, int)} and
+   * {@link AbstractStream#batch(int)}
+   */
+  @Test
+  public void testWindow() {
+    Stream<Integer> stream = Streams.enumerate(1, 5);
+    assertEquals(Arrays.asList(Arrays.asList(1, 2, 3), Arrays.asList(2, 3, 4), Arrays.asList(3, 4, 5)),
+      stream.window(3, 1).toList());
+    assertEquals(Arrays.asList(Arrays.asList(1, 2), Arrays.asList(3, 4)), stream.window(2, 2).toList());
+    assertEquals(Arrays.asList(Arrays.asList(1, 2), Arrays.asList(4, 5)), stream.window(2, 3).toList());
+    assertEquals(Arrays.asList(Arrays.asList(1)), stream.window(1, 7).toList());
+    assertTrue(stream.window(6, 1).isEmpty());
+    assertEquals(Arrays.asList(Arrays.asList(1, 2), Arrays.asList(3, 4), Arrays.asList(5)), stream.batch(2).toList());
+    assertTrue(Streams.<Integer> cons().batch(2).isEmpty());
+    assertEquals(Streams.enumerate(0, 995).toList(), Streams.enumerate(0, 999).window(7, 3).flatMap(
+      new AbstractFunction<List<Integer>, Iterable<Integer>>() {
+        public Iterable<Integer> apply(List<Integer> arg) {
+          return arg.subList(0, 3);
+        }
+      }).toList());
+  }
+
+  /**
+   * Test for {@link AbstractStream#slidingSum(int, NumberType)} and
+   * {@link AbstractStream#slidingCountOf(int, Evaluable)}
+   */
+  @Test
+  public void testSlidingSum() {
+    assertEquals(Arrays.asList(6, 9, 12), Streams.enumerate(1, 5).slidingSum(3, integer()).toList());
+    assertEquals(Arrays.asList(15), Streams.enumerate(1, 5).slidingSum(5, integer()).toList());
+    assertTrue(Streams.enumerate(1, 5).slidingSum(6, integer()).isEmpty());
+    assertEquals(Arrays.asList(2, 2, 1, 1), Streams.cons(4, 3, 8, 1, 7).slidingCountOf(2, Compare.greaterThan(2))
+      .toList());
+  }
+
   /**
    * Test for {@link AbstractStream#sort()}
    * 
@@ -470,6 +529,48 @@ public class AbstractStreamBasicTest {
         .printString());
   }
 
+  /**
+   * Tests that crossing with one-shot or empty streams answers the full
+   * cartesian product, and that it can be iterated many times
+   */
+  @Test
+  public void testCrossOneShotAndEmpty() throws Exception {
+    Stream<Tuple2<Integer, Integer>> cross = Streams.cons(1, 2).cross(Arrays.asList(3, 4).iterator());
+    assertEquals(Arrays.asList(_(1, 3), _(1, 4), _(2, 3), _(2, 4)), cross.toList());
+    assertEquals(4, cross.size());
+    assertTrue(Streams.cons(1, 2).cross(Streams.<Integer> cons()).isEmpty());
+    assertTrue(Streams.<Integer> cons().cross(1, 2).isEmpty());
+    assertTrue(Streams.cons(1, 2).crossStreams(Streams.<Stream<Integer>> cons(Streams.cons(3), Streams.<Integer> cons()))
+      .isEmpty());
+    assertEquals(1000000, Streams.enumerate(1, 1000).cross(Streams.enumerate(1, 1000)).size());
+  }
+
+  /**
+   * Tests that recursive transformations and concatenations are evaluated
+   * without growing the call stack
+   */
+  @Test
+  public void testTransformIsStackSafe() throws Exception {
+    Stream<Integer> interspersed = Streams.enumerate(1, 100000).intersperse(0);
+    assertEquals(199999, interspersed.size());
+    assertEquals((Integer) 100000, interspersed.last());
+    assertEquals(199999, interspersed.toList().size());
+
+    Stream<Integer> repeated = Streams.enumerate(1, 100000).transform(new AbstractDeconsApplicable<Integer, Integer>() {
+      public Stream<Integer> apply(Integer head, Stream<Integer> tail) {
+        return Streams.cons(head, head).concat(tail.transform(this));
+      }
+    });
+    assertEquals(200000, repeated.size());
+    assertEquals(Arrays.asList(1, 1, 2, 2), repeated.take(4).toList());
+
+    Stream<Integer> concatenated = Streams.cons(0);
+    for (int i = 1; i < 100000; i++)
+      concatenated = concatenated.concat(Streams.cons(i));
+    assertEquals(100000, concatenated.size());
+    assertEquals(Streams.enumerate(0, 99999).toList(), concatenated.toList());
+  }
+
   /**
    * Tests {@link Stream#isBefore(Object, Object)}
    */
@@ -596,8 +697,7 @@ public class AbstractStreamBasicTest {
     assertTrue(Streams.cons('a', 'b', 'c', null).insertBefore('x', null).equiv('a', 'b', 'c', 'x', null));
   }
   
-  /*
-   * TODO
+  /***/
   @Test
   public void splitBeforeIndex() throws Exception {
     Tuple2<Stream<Character>, Stream<Character>> streams = Streams.from("hello world!").splitBeforeIndex(5);
@@ -610,8 +710,13 @@ public class AbstractStreamBasicTest {
     
     assertTrue(Streams.cons(4, 5, 6, 9).drop(100).isEmpty());
 
+    Tuple2<Stream<Integer>, Stream<Integer>> numbers = Streams.from(Arrays.asList(4, 5, 6, 9).iterator())
+      .splitBeforeIndex(2);
+    assertEquals(Arrays.asList(6, 9), numbers.second().toList());
+    assertEquals(Arrays.asList(4, 5), numbers.first().toList());
   }
   
+  /***/
   @Test
   public void splitBefore() throws Exception {
     Tuple2<Stream<Character>, Stream<Character>> streams = Streams.from("aaaaabbbbbcddddd").splitBefore('d');
@@ -621,7 +726,42 @@ public class AbstractStreamBasicTest {
     streams = Streams.from("aaaaabbbbbcddddd").splitBefore('x');
     assertEquals("", streams.second().joinStrings(""));
     assertEquals("aaaaabbbbbcddddd", streams.first().joinStrings(""));
-  }*/
+
+    Tuple2<Stream<Integer>, Stream<Integer>> numbers = Streams.from(Arrays.asList(4, 5, 6, 9).iterator())
+      .splitBefore(6);
+    assertEquals(Arrays.asList(4, 5), numbers.first().toList());
+    assertEquals(Arrays.asList(6, 9), numbers.second().toList());
+  }
+
+  /***/
+  @Test
+  public void memoizeBoundedPrefix() throws Exception {
+    Stream<Integer> stream = Streams.from(Arrays.asList(4, 5, 6, 9).iterator()).memoize(2);
+    assertEquals(Arrays.asList(4, 5), stream.take(2).toList());
+    assertEquals(Arrays.asList(4, 5), stream.take(2).toList());
+    assertEquals(Arrays.asList(4, 5, 6, 9), stream.toList());
+  }
+
+  /**
+   * Tests that bounded memoization evaluates the prefix only once, and does
+   * not truncate repeatable sources
+   */
+  @Test
+  public void memoizeBoundedPrefixOfRepeatableSource() throws Exception {
+    final int[] applications = new int[1];
+    Stream<Integer> stream = Streams.from(Arrays.asList(1, 2, 3, 4)).map(new AbstractFunction<Integer, Integer>() {
+      public Integer apply(Integer arg) {
+        applications[0]++;
+        return arg * 10;
+      }
+    }).memoize(2);
+    assertEquals(Arrays.asList(10, 20), stream.take(2).toList());
+    assertEquals(Arrays.asList(10, 20), stream.take(2).toList());
+    assertEquals(2, applications[0]);
+    assertEquals(Arrays.asList(10, 20, 30, 40), stream.toList());
+    assertEquals(Arrays.asList(10, 20, 30, 40), stream.toList());
+    assertEquals(6, applications[0]);
+  }
 
   /***/
   @Test
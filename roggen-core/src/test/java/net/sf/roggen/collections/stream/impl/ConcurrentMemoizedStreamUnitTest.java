@@ -0,0 +1,97 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.stream.impl;
+
+import static net.sf.roggen.numbers.NumberTypes.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import net.sf.roggen.collections.stream.Stream;
+import net.sf.roggen.collections.stream.Streams;
+import net.sf.roggen.lang.function.AbstractFunction;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test for {@link Stream#concurrentMemoize()}
+ *
+ * @author flbulgarelli
+ *
+ */
+public class ConcurrentMemoizedStreamUnitTest {
+
+  private ExecutorService executor;
+
+  /***/
+  @Before
+  public void setup() {
+    executor = Executors.newFixedThreadPool(8);
+  }
+
+  /***/
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Test that many threads iterating a memoized stream retrieve the same
+   * elements, and that source elements are evaluated only once
+   */
+  @Test
+  public void testSharedIteration() throws Exception {
+    final int[] evaluations = new int[1];
+    final Stream<Integer> stream = Streams.from(Streams.enumerate(0, 9999).iterator())
+      .map(new AbstractFunction<Integer, Integer>() {
+        public Integer apply(Integer arg) {
+          evaluations[0]++;
+          return arg;
+        }
+      }).concurrentMemoize();
+    List<Future<List<Integer>>> futures = new ArrayList<Future<List<Integer>>>();
+    for (int i = 0; i < 16; i++)
+      futures.add(executor.submit(new Callable<List<Integer>>() {
+        public List<Integer> call() throws Exception {
+          return stream.toList();
+        }
+      }));
+    List<Integer> expected = Streams.enumerate(0, 9999).toList();
+    for (Future<List<Integer>> future : futures)
+      assertEquals(expected, future.get());
+    assertEquals(10000, evaluations[0]);
+    assertEquals(expected, stream.toList());
+  }
+
+  /** Test that memoization is lazy and repeatable */
+  @Test
+  public void testLazyAndRepeatable() throws Exception {
+    Stream<Integer> stream = Streams.from(Streams.cons(4, 5, 6).iterator()).concurrentMemoize();
+    assertSame(stream, stream.concurrentMemoize());
+    assertEquals((Integer) 4, stream.head());
+    assertEquals((Integer) 15, stream.sum(integer()));
+    assertEquals(3, stream.size());
+    assertFalse(stream.isEmpty());
+    assertTrue(Streams.from(Streams.<Integer> cons().iterator()).concurrentMemoize().isEmpty());
+  }
+
+}
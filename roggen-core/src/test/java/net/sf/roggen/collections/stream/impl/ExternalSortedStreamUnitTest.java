@@ -0,0 +1,148 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.stream.impl;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import net.sf.roggen.collections.iterable.Iterables;
+import net.sf.roggen.collections.stream.Stream;
+import net.sf.roggen.collections.stream.Streams;
+import net.sf.roggen.io.Codec;
+import net.sf.roggen.io.Codecs;
+import net.sf.roggen.lang.Compare;
+
+import org.junit.Test;
+
+/**
+ * Test for {@link Stream#sortBy(Comparator, Codec, int)}
+ *
+ * @author flbulgarelli
+ *
+ */
+public class ExternalSortedStreamUnitTest {
+
+  /** Test that external sorting answers the same elements than in-memory sorting */
+  @Test
+  public void testSort() throws Exception {
+    Random random = new Random(7);
+    List<Integer> elements = new ArrayList<Integer>();
+    for (int i = 0; i < 10000; i++)
+      elements.add(random.nextInt());
+    List<Integer> expected = Iterables.toSortedList(elements, Compare.<Integer> natural());
+    for (int runSize : new int[] { 1, 97, 1000, 10000, 20000 })
+      assertEquals(expected, Streams.from(elements.iterator())
+        .sortBy(Compare.<Integer> natural(), Codecs.integer(), runSize)
+        .toList());
+  }
+
+  /** Test that external sorting is stable */
+  @Test
+  public void testStability() throws Exception {
+    Comparator<String> byLength = new Comparator<String>() {
+      public int compare(String o1, String o2) {
+        return o1.length() - o2.length();
+      }
+    };
+    Stream<String> words = Streams.cons("ccc", "a", "bb", "b", "dd", "c", "eee", "d");
+    assertEquals(Arrays.asList("a", "b", "c", "d", "bb", "dd", "ccc", "eee"),
+      words.sortBy(byLength, Codecs.string(), 2).toList());
+    assertEquals(Arrays.asList("a", "b"), words.sortBy(byLength, Codecs.string(), 2).take(2).toList());
+  }
+
+  /** Test external sorting of empty streams and serializable elements */
+  @Test
+  public void testEmptyAndSerializable() throws Exception {
+    assertTrue(Streams.<Integer> cons().sortBy(Compare.<Integer> natural(), Codecs.integer(), 10).isEmpty());
+    assertEquals(Arrays.asList(1.5, 2.0, 3.25),
+      Streams.cons(3.25, 1.5, 2.0).sortBy(Compare.<Double> natural(), Codecs.<Double> serializable(), 1).toList());
+  }
+
+  /** Test that the string codec supports null elements */
+  @Test
+  public void testNullStrings() throws Exception {
+    Comparator<String> nullsFirst = new Comparator<String>() {
+      public int compare(String o1, String o2) {
+        if (o1 == null || o2 == null)
+          return o1 == null ? (o2 == null ? 0 : -1) : 1;
+        return o1.compareTo(o2);
+      }
+    };
+    assertEquals(Arrays.asList(null, "a", "b", "c"),
+      Streams.cons("c", null, "a", "b").sortBy(nullsFirst, Codecs.string(), 1).toList());
+  }
+
+  /**
+   * Test that run files are deleted when sorting is completed and when it
+   * fails
+   */
+  @Test
+  public void testRunFilesAreDeleted() throws Exception {
+    int files = countRunFiles();
+    Stream<Integer> elements = Streams.enumerate(0, 100);
+
+    assertEquals(100, (int) elements.sortBy(Compare.<Integer> natural(), Codecs.integer(), 10).last());
+    assertEquals(files, countRunFiles());
+
+    final int[] comparisons = new int[1];
+    Comparator<Integer> failing = new Comparator<Integer>() {
+      public int compare(Integer o1, Integer o2) {
+        if (++comparisons[0] > 400)
+          throw new IllegalStateException();
+        return o1.compareTo(o2);
+      }
+    };
+    try {
+      elements.sortBy(failing, Codecs.integer(), 10).toList();
+      fail();
+    } catch (IllegalStateException e) {}
+    assertEquals(files, countRunFiles());
+  }
+
+  /**
+   * Test that many runs are merged in passes, so that the amount of run files
+   * read at once is bounded
+   */
+  @Test
+  public void testManyRuns() throws Exception {
+    int files = countRunFiles();
+    Stream<Integer> elements = Streams.enumerate(0, 9999).reverse();
+    Iterator<Integer> sorted = elements.sortBy(Compare.<Integer> natural(), Codecs.integer(), 1).iterator();
+    assertEquals(0, (int) sorted.next());
+    assertTrue(countRunFiles() - files <= 64);
+    for (int i = 1; i < 10000; i++)
+      assertEquals(i, (int) sorted.next());
+    assertFalse(sorted.hasNext());
+    assertEquals(files, countRunFiles());
+  }
+
+  private static int countRunFiles() {
+    File[] files = new File(System.getProperty("java.io.tmpdir")).listFiles(new FilenameFilter() {
+      public boolean accept(File dir, String name) {
+        return name.startsWith("roggen-sort") && name.endsWith(".run");
+      }
+    });
+    return files.length;
+  }
+
+}
@@ -0,0 +1,89 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.stream.impl;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.NoSuchElementException;
+
+import net.sf.roggen.collections.EmptySourceException;
+import net.sf.roggen.collections.stream.IndexedStream;
+import net.sf.roggen.collections.stream.Stream;
+import net.sf.roggen.collections.stream.Streams;
+import net.sf.roggen.defs.function.Function;
+import net.sf.roggen.lang.Option;
+import net.sf.roggen.lang.function.AbstractFunction;
+import net.sf.roggen.util.Strings;
+
+import org.junit.Test;
+
+/**
+ * Test for {@link Stream#indexOn(Function)}
+ * 
+ * @author flbulgarelli
+ * 
+ */
+public class IndexedStreamUnitTest {
+
+  /** Test for lookups by key */
+  @Test
+  public void testLookup() throws Exception {
+    IndexedStream<Integer, String> indexed = Streams.cons("foo", "hello", "bar", "a", "world").indexOn(
+      Strings.length());
+    assertEquals("foo", indexed.lookup(3));
+    assertEquals(Option.some("hello"), indexed.lookupOrNone(5));
+    assertEquals(Option.none(), indexed.lookupOrNone(4));
+    assertEquals(Arrays.asList("hello", "world"), indexed.lookupAll(5));
+    assertEquals(Collections.emptyList(), indexed.lookupAll(2));
+    assertTrue(indexed.containsKey(1));
+    assertFalse(indexed.containsKey(2));
+    assertEquals("a", indexed.lookup(1, Strings.length()));
+    assertTrue(indexed.contains("bar"));
+    assertFalse(indexed.contains("baz"));
+    assertTrue(Streams.from(Arrays.asList("foo", null)).indexOn(Strings.length()).contains(null));
+    assertEquals(Arrays.asList("foo", "hello", "bar", "a", "world"), indexed.toList());
+    try {
+      indexed.lookup(8);
+      fail();
+    } catch (NoSuchElementException e) {
+    }
+  }
+
+  /** Test that the index is built once over a memoized source */
+  @Test
+  public void testIndexIsBuiltOnce() throws Exception {
+    final int[] evaluations = { 0 };
+    Function<Integer, Integer> mod = new AbstractFunction<Integer, Integer>() {
+      public Integer apply(Integer arg) {
+        evaluations[0]++;
+        return arg % 10;
+      }
+    };
+    IndexedStream<Integer, Integer> indexed = Streams.from(Streams.enumerate(0, 99).iterator()).indexOn(mod);
+    for (int i = 0; i < 10; i++)
+      assertEquals((Integer) i, indexed.lookup(i));
+    assertEquals(100, evaluations[0]);
+    assertEquals(100, indexed.size());
+  }
+
+  /** Test for lookups on empty indexed streams */
+  @Test(expected = EmptySourceException.class)
+  public void testLookupEmpty() throws Exception {
+    Streams.<String> cons().indexOn(Strings.length()).lookup(3);
+  }
+
+}
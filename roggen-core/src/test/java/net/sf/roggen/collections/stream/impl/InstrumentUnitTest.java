@@ -0,0 +1,119 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.stream.impl;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.sf.roggen.collections.stream.Instrumentation;
+import net.sf.roggen.collections.stream.MetricsSink;
+import net.sf.roggen.collections.stream.StageMetrics;
+import net.sf.roggen.collections.stream.Stream;
+import net.sf.roggen.collections.stream.Streams;
+import net.sf.roggen.iterators.thriter.Thriterator;
+import net.sf.roggen.lang.Compare;
+import net.sf.roggen.numbers.NumberTypes;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test for {@link Stream#instrument(String, MetricsSink)}
+ *
+ * @author flbulgarelli
+ *
+ */
+public class InstrumentUnitTest {
+
+  private List<StageMetrics> started;
+  private List<StageMetrics> finished;
+  private MetricsSink sink;
+
+  /***/
+  @Before
+  public void setup() {
+    started = new ArrayList<StageMetrics>();
+    finished = new ArrayList<StageMetrics>();
+    sink = new MetricsSink() {
+      public void iterationStarted(StageMetrics metrics) {
+        started.add(metrics);
+      }
+
+      public void iterationFinished(StageMetrics metrics) {
+        finished.add(metrics);
+      }
+    };
+  }
+
+  /***/
+  @After
+  public void tearDown() {
+    Instrumentation.disable();
+  }
+
+  /** Test that each instrumented stage records the elements it retrieves */
+  @Test
+  public void testInstrument() throws Exception {
+    List<Integer> result = Streams.enumerate(1, 100).instrument("source", sink) //
+      .filter(Compare.greaterThan(50)).instrument("filter", sink) //
+      .map(NumberTypes.add(1)).instrument("map", sink) //
+      .toList();
+    assertEquals(Streams.enumerate(52, 101).toList(), result);
+    assertEquals(3, started.size());
+    assertEquals(3, finished.size());
+    assertEquals("source", finished.get(0).getName());
+    assertEquals(100, finished.get(0).getElements());
+    assertEquals(50, finished.get(1).getElements());
+    assertEquals("map", finished.get(2).getName());
+    assertEquals(50, finished.get(2).getElements());
+    assertTrue(finished.get(2).getHasNextNanos() >= finished.get(1).getHasNextNanos());
+  }
+
+  /** Test that partial iterations are reported as started, but not finished */
+  @Test
+  public void testPartialIteration() throws Exception {
+    Stream<Integer> stream = Streams.enumerate(1, 100).instrument("source", sink);
+    assertEquals(Streams.enumerate(1, 3).toList(), stream.take(3).toList());
+    assertEquals(1, started.size());
+    assertEquals(0, finished.size());
+    assertEquals(3, started.get(0).getElements());
+  }
+
+  /** Test that thunk evaluations are recorded */
+  @Test
+  public void testThunkEvaluations() throws Exception {
+    Thriterator<Integer> iterator = Streams.cons(1, 2, 3).instrument("source", sink).iterator();
+    iterator.advanceNext();
+    iterator.delayedCurrent();
+    iterator.advanceNext();
+    assertEquals((Integer) 2, iterator.delayedCurrent().value());
+    assertEquals(1, started.get(0).getThunkEvaluations());
+  }
+
+  /** Test that instrument answers the same stream when it is disabled */
+  @Test
+  public void testDisabled() throws Exception {
+    Stream<Integer> stream = Streams.cons(1, 2, 3);
+    assertSame(stream, stream.instrument("source"));
+    Instrumentation.enable(sink);
+    assertNotSame(stream, stream.instrument("source"));
+    assertEquals(3, stream.instrument("source").size());
+    assertEquals(1, finished.size());
+  }
+
+}
@@ -0,0 +1,103 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.stream.impl;
+
+import static net.sf.roggen.lang.tuple.Tuples.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import net.sf.roggen.collections.stream.Stream;
+import net.sf.roggen.collections.stream.Streams;
+import net.sf.roggen.defs.function.Function;
+import net.sf.roggen.defs.tuple.Tuple2;
+import net.sf.roggen.lang.Compare;
+import net.sf.roggen.lang.Option;
+import net.sf.roggen.lang.function.AbstractFunction;
+import net.sf.roggen.lang.function.Functions;
+import net.sf.roggen.util.Strings;
+
+import org.junit.Test;
+
+/**
+ * Test for {@link Stream#join(Stream, Function, Function)} and the other
+ * joining operators
+ * 
+ * @author flbulgarelli
+ * 
+ */
+public class JoinUnitTest {
+
+  private static final Function<String, Character> INITIAL = new AbstractFunction<String, Character>() {
+    public Character apply(String arg) {
+      return arg.charAt(0);
+    }
+  };
+
+  private final Stream<Character> letters = Streams.cons('a', 'b', 'c', 'b');
+  private final Stream<String> words = Streams.cons("bye", "apple", "ball", "dog");
+
+  /** Test for inner hash joins */
+  @Test
+  public void testJoin() throws Exception {
+    assertEquals(Arrays.asList(_('a', "apple"), _('b', "bye"), _('b', "ball"), _('b', "bye"), _('b', "ball")),
+      letters.join(words, Functions.<Character> identity(), INITIAL).toList());
+    assertTrue(letters.join(Streams.<String> cons(), Functions.<Character> identity(), INITIAL).isEmpty());
+  }
+
+  /** Test for left outer hash joins */
+  @Test
+  public void testLeftJoin() throws Exception {
+    assertEquals(Arrays.asList(_('a', Option.some("apple")), _('b', Option.some("bye")), _('b', Option.some("ball")),
+      _('c', Option.<String> none()), _('b', Option.some("bye")), _('b', Option.some("ball"))),
+      letters.leftJoin(words, Functions.<Character> identity(), INITIAL).toList());
+  }
+
+  /** Test for semi joins */
+  @Test
+  public void testSemiJoin() throws Exception {
+    assertEquals(Arrays.asList('a', 'b', 'b'), letters.semiJoin(words, Functions.<Character> identity(), INITIAL)
+      .toList());
+    assertEquals(Arrays.asList("bye", "dog"),
+      words.semiJoin(Streams.cons(3), Strings.length(), Functions.<Integer> identity()).toList());
+  }
+
+  /** Test for merge joins over sorted streams with repeated keys */
+  @Test
+  public void testMergeJoin() throws Exception {
+    Stream<Character> sortedLetters = Streams.cons('a', 'b', 'b', 'c', 'e');
+    Stream<String> sortedWords = Streams.cons("apple", "ball", "bye", "dog", "egg", "end");
+    assertEquals(sortedLetters.join(sortedWords, Functions.<Character> identity(), INITIAL).toList(),
+      sortedLetters.mergeJoin(sortedWords, Functions.<Character> identity(), INITIAL, Compare.<Character> natural())
+        .toList());
+    assertTrue(sortedLetters.mergeJoin(Streams.<String> cons(), Functions.<Character> identity(), INITIAL,
+      Compare.<Character> natural()).isEmpty());
+  }
+
+  /** Test that joining large streams is linear */
+  @Test(timeout = 10000)
+  public void testLargeJoins() throws Exception {
+    Stream<Integer> left = Streams.enumerate(0, 99999);
+    Stream<Integer> right = Streams.enumerate(50000, 149999);
+    assertEquals(50000, left.join(right, Functions.<Integer> identity(), Functions.<Integer> identity()).size());
+    assertEquals(50000,
+      left.mergeJoin(right, Functions.<Integer> identity(), Functions.<Integer> identity(), Compare.<Integer> natural())
+        .size());
+    Tuple2<Integer, Integer> last = left.join(right, Functions.<Integer> identity(), Functions.<Integer> identity())
+      .last();
+    assertEquals(_(99999, 99999), last);
+  }
+
+}
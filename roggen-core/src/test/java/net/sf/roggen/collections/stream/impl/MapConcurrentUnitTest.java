@@ -0,0 +1,116 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.stream.impl;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.sf.roggen.collections.stream.Stream;
+import net.sf.roggen.collections.stream.Streams;
+import net.sf.roggen.defs.Applicable;
+import net.sf.roggen.lang.function.AbstractFunction;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test for {@link Stream#mapConcurrent(Applicable, ExecutorService, int)}
+ *
+ * @author flbulgarelli
+ *
+ */
+public class MapConcurrentUnitTest {
+
+  private ExecutorService executor;
+
+  /***/
+  @Before
+  public void setup() {
+    executor = Executors.newFixedThreadPool(8);
+  }
+
+  /***/
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  /** Test that results are retrieved in source order */
+  @Test
+  public void testOrder() throws Exception {
+    Applicable<Integer, Integer> slowSquare = new AbstractFunction<Integer, Integer>() {
+      public Integer apply(Integer arg) {
+        try {
+          Thread.sleep(arg % 3);
+        } catch (InterruptedException e) {
+          throw new IllegalStateException(e);
+        }
+        return arg * arg;
+      }
+    };
+    Stream<Integer> stream = Streams.enumerate(0, 499);
+    assertEquals(stream.map(slowSquare).toList(), stream.mapConcurrent(slowSquare, executor, 6).toList());
+    assertEquals(stream.map(slowSquare).toList(), stream.mapConcurrent(slowSquare, executor, 1).toList());
+    assertTrue(Streams.<Integer> cons().mapConcurrent(slowSquare, executor, 4).isEmpty());
+  }
+
+  /** Test that no more than maxInFlight elements are transformed at once */
+  @Test
+  public void testMaxInFlight() throws Exception {
+    final AtomicInteger running = new AtomicInteger();
+    final AtomicInteger maxRunning = new AtomicInteger();
+    final AtomicInteger submitted = new AtomicInteger();
+    Stream<Integer> stream = Streams.enumerate(0, 199).mapConcurrent(new AbstractFunction<Integer, Integer>() {
+      public Integer apply(Integer arg) {
+        submitted.incrementAndGet();
+        int current = running.incrementAndGet();
+        synchronized (maxRunning) {
+          maxRunning.set(Math.max(maxRunning.get(), current));
+        }
+        try {
+          Thread.sleep(1);
+        } catch (InterruptedException e) {
+          throw new IllegalStateException(e);
+        }
+        running.decrementAndGet();
+        return arg;
+      }
+    }, executor, 3);
+    assertEquals(200, stream.size());
+    assertTrue(maxRunning.get() <= 3);
+
+    submitted.set(0);
+    assertEquals(Arrays.asList(0, 1), stream.take(2).toList());
+    assertTrue(submitted.get() <= 2 + 3);
+  }
+
+  /** Test that exceptions thrown by the function are propagated */
+  @Test(expected = IllegalStateException.class)
+  public void testExceptionPropagation() throws Exception {
+    Streams.enumerate(0, 999).mapConcurrent(new AbstractFunction<Integer, Integer>() {
+      public Integer apply(Integer arg) {
+        if (arg == 500)
+          throw new IllegalStateException();
+        return arg;
+      }
+    }, executor, 4).toList();
+  }
+
+}
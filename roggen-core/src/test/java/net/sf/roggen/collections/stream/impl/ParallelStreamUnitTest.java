@@ -0,0 +1,180 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.stream.impl;
+
+import static net.sf.roggen.numbers.NumberTypes.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import net.sf.roggen.collections.iterable.Iterables;
+import net.sf.roggen.collections.stream.Stream;
+import net.sf.roggen.collections.stream.Streams;
+import net.sf.roggen.defs.function.Function;
+import net.sf.roggen.defs.reduction.Reduction;
+import net.sf.roggen.lang.Compare;
+import net.sf.roggen.lang.function.AbstractFunction;
+import net.sf.roggen.lang.function.AbstractFunction2;
+import net.sf.roggen.lang.predicate.AbstractPredicate;
+import net.sf.roggen.reductions.Reductions;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test for {@link Stream#parallel(ExecutorService)}
+ *
+ * @author flbulgarelli
+ *
+ */
+public class ParallelStreamUnitTest {
+
+  private ExecutorService executor;
+
+  /***/
+  @Before
+  public void setup() {
+    executor = Executors.newFixedThreadPool(4);
+  }
+
+  /***/
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  /** Test that parallel toList preserves the sequential order */
+  @Test
+  public void testToList() throws Exception {
+    List<Integer> expected = Streams.enumerate(0, 99999).map(add(1)).filter(Compare.greaterThan(10)).toList();
+    assertEquals(expected, Streams.enumerate(0, 99999).parallel(executor).map(add(1))
+      .filter(Compare.greaterThan(10)).toList());
+    assertEquals(expected, Streams.enumerate(0, 99999).map(add(1)).parallel(executor)
+      .filter(Compare.greaterThan(10)).toList());
+  }
+
+  /** Test for parallel reductions over lists, arrays and char sequences */
+  @Test
+  public void testReductions() throws Exception {
+    List<Integer> list = new ArrayList<Integer>();
+    for (int i = 0; i < 50000; i++)
+      list.add(i % 997);
+    Stream<Integer> parallel = Streams.from(list).parallel(executor);
+    assertEquals(Streams.from(list).sum(integer()), parallel.sum(integer()));
+    assertEquals(Streams.from(list).reduce(integer().add()), parallel.reduce(integer().add()));
+    assertEquals((Integer) 996, parallel.maximum());
+    assertEquals((Integer) 0, parallel.minimum());
+    assertEquals(50000, parallel.size());
+    assertEquals(Streams.from(list).countOf(Compare.lessThan(5)), parallel.countOf(Compare.lessThan(5)));
+    assertEquals(3000, parallel.filter(Compare.greaterThan(10)).take(3000).size());
+
+    Integer[] array = list.toArray(new Integer[0]);
+    assertEquals(Streams.from(array).sum(integer()), Streams.from(array).parallel(executor).sum(integer()));
+
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 20000; i++)
+      sb.append((char) ('a' + i % 26));
+    assertEquals(Streams.from(sb).toList(), Streams.from(sb).parallel(executor).toList());
+    assertTrue(Streams.from(sb).parallel(executor).all(new AbstractPredicate<Character>() {
+      public boolean eval(Character argument) {
+        return Character.isLowerCase(argument);
+      }
+    }));
+  }
+
+  /** Test that parallel groupOn merges partial groups in order */
+  @Test
+  public void testGroupOn() throws Exception {
+    Function<Integer, Integer> mod = new AbstractFunction<Integer, Integer>() {
+      public Integer apply(Integer arg) {
+        return arg % 1000;
+      }
+    };
+    Stream<Integer> stream = Streams.enumerate(0, 99999);
+    assertEquals(stream.groupOn(mod, Reductions.<Integer> count()),
+      stream.parallel(executor).groupOn(mod, Reductions.<Integer> count()));
+    assertEquals(stream.groupOn(mod, Reductions.<Integer> append()),
+      stream.parallel(executor).groupOn(mod, Reductions.<Integer> append()));
+    assertEquals(stream.groupOn(mod, Reductions.<Integer> max()),
+      stream.parallel(executor).groupOn(mod, Reductions.<Integer> max()));
+    assertEquals(new ArrayList<Integer>(stream.groupOn(mod, Reductions.sum()).keySet()),
+      new ArrayList<Integer>(stream.parallel(executor).groupOn(mod, Reductions.sum()).keySet()));
+    assertEquals(stream.groupOn(mod, Reductions.sum(integer())),
+      stream.parallel(executor).groupOn(mod, Reductions.sum(integer())));
+    assertEquals(stream.groupOn(mod, Reductions.all(Reductions.<Integer> count(), Reductions.<Integer> max())),
+      stream.parallel(executor).groupOn(mod, Reductions.all(Reductions.<Integer> count(), Reductions.<Integer> max())));
+  }
+
+  /** Test that mergeable reductions are evaluated by chunks */
+  @Test
+  public void testReduction() throws Exception {
+    List<Integer> list = new ArrayList<Integer>(Streams.enumerate(0, 99999).toList());
+    Stream<Integer> stream = Streams.from(list);
+    assertEquals(stream.reduce(Reductions.<Integer> append()),
+      stream.parallel(executor).reduce(Reductions.<Integer> append()));
+    assertEquals((Integer) 100000, stream.parallel(executor).reduce(Reductions.<Integer> count()));
+    assertEquals((Integer) 99999, stream.parallel(executor).reduce(Reductions.<Integer> max()));
+    assertEquals((Integer) 100000, Iterables.reduce(list, Reductions.<Integer> count(), executor));
+    assertEquals(stream.reduce(Reductions.sum(integer())),
+      Iterables.reduce(list, Reductions.sum(integer()), executor));
+    Reduction<Integer, Integer> subtraction = Reductions.from(new AbstractFunction2<Integer, Integer, Integer>() {
+      public Integer apply(Integer arg0, Integer arg1) {
+        return arg0 - arg1;
+      }
+    });
+    assertEquals(stream.reduce(subtraction), stream.parallel(executor).reduce(subtraction));
+  }
+
+  /** Test that streams that can not be split are evaluated sequentially */
+  @Test
+  public void testNonSplittable() throws Exception {
+    List<Integer> list = new LinkedList<Integer>(Streams.enumerate(0, 5000).toList());
+    Stream<Integer> stream = Streams.from(list);
+    assertSame(stream, stream.parallel(executor));
+    assertEquals(stream.sum(integer()), stream.parallel(executor).sum(integer()));
+  }
+
+  /** Test that reductions over empty parallel streams behave as sequential ones */
+  @Test
+  public void testEmpty() throws Exception {
+    Stream<Integer> empty = Streams.enumerate(0, 9999).parallel(executor).filter(Compare.greaterThan(20000));
+    assertEquals((Integer) 0, empty.sum(integer()));
+    assertTrue(empty.toList().isEmpty());
+    try {
+      empty.reduce(integer().add());
+      fail();
+    } catch (NoSuchElementException e) {
+    }
+  }
+
+  /** Test that exceptions thrown by chunk tasks are propagated */
+  @Test(expected = IllegalStateException.class)
+  public void testExceptionPropagation() throws Exception {
+    Streams.enumerate(0, 99999).parallel(executor).map(new AbstractFunction<Integer, Integer>() {
+      public Integer apply(Integer arg) {
+        if (arg == 90000)
+          throw new IllegalStateException();
+        return arg;
+      }
+    }).toList();
+  }
+
+}
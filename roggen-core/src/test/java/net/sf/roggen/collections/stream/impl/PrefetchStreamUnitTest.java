@@ -0,0 +1,119 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.stream.impl;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import net.sf.roggen.collections.stream.Stream;
+import net.sf.roggen.collections.stream.Streams;
+import net.sf.roggen.lang.function.AbstractFunction;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test for {@link Stream#prefetch(int, ExecutorService)}
+ *
+ * @author flbulgarelli
+ *
+ */
+public class PrefetchStreamUnitTest {
+
+  private ExecutorService executor;
+
+  /***/
+  @Before
+  public void setup() {
+    executor = Executors.newCachedThreadPool();
+  }
+
+  /***/
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  /** Test that prefetched streams retrieve the same elements, in order */
+  @Test
+  public void testPrefetch() throws Exception {
+    Stream<Integer> stream = Streams.enumerate(0, 9999);
+    assertEquals(stream.toList(), stream.prefetch(16, executor).toList());
+    assertEquals(stream.toList(), stream.prefetch(1, executor).toList());
+    assertEquals(10000, stream.prefetch(16, executor).size());
+    assertEquals(Arrays.asList(1, null, 2), Streams.cons(1, null, 2).prefetch(2, executor).toList());
+    assertTrue(Streams.<Integer> cons().prefetch(4, executor).isEmpty());
+  }
+
+  /** Test that one-shot streams can be prefetched */
+  @Test
+  public void testOneShot() throws Exception {
+    Stream<Integer> stream = Streams.from(Arrays.asList(1, 2, 3).iterator()).prefetch(2, executor);
+    assertEquals(Arrays.asList(2, 4, 6), stream.map(new AbstractFunction<Integer, Integer>() {
+      public Integer apply(Integer arg) {
+        return arg * 2;
+      }
+    }).toList());
+  }
+
+  /** Test that partially consumed streams do not block the consumer */
+  @Test
+  public void testPartialConsumption() throws Exception {
+    assertEquals(Arrays.asList(0, 1, 2), Streams.enumerate(0, 100000).prefetch(4, executor).take(3).toList());
+  }
+
+  /**
+   * Test that abandoned iterations do not keep executor threads blocked, so
+   * that a single thread executor can serve any number of them
+   */
+  @Test(timeout = 20000)
+  public void testAbandonedIterations() throws Exception {
+    ExecutorService singleThread = Executors.newFixedThreadPool(1);
+    try {
+      Stream<Integer> stream = Streams.enumerate(0, 1000).prefetch(4, singleThread);
+      for (int i = 0; i < 20; i++) {
+        assertFalse(stream.isEmpty());
+        assertEquals((Integer) 0, stream.first());
+        assertEquals(Arrays.asList(0, 1, 2), stream.take(3).toList());
+      }
+      assertEquals(1001, stream.size());
+    } finally {
+      singleThread.shutdownNow();
+    }
+  }
+
+  /** Test that exceptions thrown by the source are propagated */
+  @Test(expected = IllegalStateException.class)
+  public void testExceptionPropagation() throws Exception {
+    Streams.enumerate(0, 9999).map(new AbstractFunction<Integer, Integer>() {
+      public Integer apply(Integer arg) {
+        if (arg == 5000)
+          throw new IllegalStateException();
+        return arg;
+      }
+    }).prefetch(8, executor).toList();
+  }
+
+  /** Test that buffer size must be positive */
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidBufferSize() throws Exception {
+    Streams.cons(1).prefetch(0, executor);
+  }
+
+}
@@ -0,0 +1,105 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.stream.impl;
+
+import static net.sf.roggen.lang.tuple.Tuples.*;
+import static net.sf.roggen.numbers.NumberTypes.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import net.sf.roggen.collections.stream.Stream;
+import net.sf.roggen.collections.stream.Streams;
+import net.sf.roggen.collections.stream.internal.algorithms.RandomAccessStream;
+import net.sf.roggen.defs.tuple.Tuple2;
+import net.sf.roggen.lang.function.AbstractFunction;
+
+import org.junit.Test;
+
+/**
+ * Test for {@link RandomAccessStream} and its views
+ *
+ * @author flbulgarelli
+ *
+ */
+public class RandomAccessStreamUnitTest {
+
+  /** Test that take, drop and slice over mapped arrays preserve random access */
+  @Test
+  public void testMappedSlices() throws Exception {
+    Integer[] array = Streams.enumerate(0, 999).toArray(Integer.class);
+    Stream<Integer> page = Streams.from(array).map(add(1)).drop(500).take(20);
+    assertRandomAccess(page);
+    assertEquals(20, page.size());
+    assertEquals((Integer) 511, page.get(10));
+    assertEquals(Streams.enumerate(501, 520).toList(), page.toList());
+
+    Stream<Character> chars = Streams.from("hello world").map(new AbstractFunction<Character, Character>() {
+      public Character apply(Character arg) {
+        return Character.toUpperCase(arg);
+      }
+    }).slice(6, 9);
+    assertRandomAccess(chars);
+    assertEquals("WOR", chars.joinStrings(""));
+  }
+
+  /** Test views over views */
+  @Test
+  public void testNestedViews() throws Exception {
+    Stream<Integer> stream = Streams.from(Arrays.asList(1, 2, 3, 4, 5, 6)).zip(Streams.enumerate(10, 15))
+      .map(new AbstractFunction<Tuple2<Integer, Integer>, Integer>() {
+        public Integer apply(Tuple2<Integer, Integer> arg) {
+          return arg._0() + arg._1();
+        }
+      });
+    assertRandomAccess(stream);
+    assertEquals(Arrays.asList(11, 13, 15, 17, 19, 21), stream.toList());
+    assertEquals((Integer) 21, stream.last());
+
+    Stream<Tuple2<Integer, Character>> zipped = Streams.enumerate(0, 99).drop(90).zip(Streams.from("abc"));
+    assertRandomAccess(zipped);
+    assertEquals(3, zipped.size());
+    assertEquals(_(92, 'c'), zipped.get(2));
+    assertEquals(Arrays.asList(_(91, 'b')), zipped.drop(1).take(1).toList());
+  }
+
+  /** Test that reverse answers views, and buffers lazy sources */
+  @Test
+  public void testReverse() throws Exception {
+    Stream<Integer> reversed = Streams.from(new Integer[] { 1, 2, 3, 4 }).map(add(10)).reverse();
+    assertRandomAccess(reversed);
+    assertEquals(Arrays.asList(14, 13, 12, 11), reversed.toList());
+    assertEquals((Integer) 13, reversed.get(1));
+    assertEquals(Arrays.asList(13, 12), reversed.drop(1).take(2).toList());
+    assertEquals(Arrays.asList(11, 12, 13, 14), reversed.reverse().toList());
+    assertEquals("olleh", Streams.from("hello").reverse().joinStrings(""));
+
+    Stream<Integer> lazy = Streams.from(Arrays.asList(1, 2, 3).iterator()).reverse();
+    assertEquals(Arrays.asList(3, 2, 1), lazy.toList());
+    assertEquals(Arrays.asList(3, 2, 1), lazy.toList());
+    assertTrue(Streams.from(Arrays.<Integer> asList().iterator()).reverse().isEmpty());
+  }
+
+  /** Test that view indexes are bound checked */
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testOutOfBounds() throws Exception {
+    Streams.from(new Integer[] { 1, 2, 3, 4 }).zip(Streams.from("ab")).get(2);
+  }
+
+  private static void assertRandomAccess(Stream<?> stream) {
+    assertTrue(RandomAccessStream.isRandomAccess(stream));
+  }
+
+}
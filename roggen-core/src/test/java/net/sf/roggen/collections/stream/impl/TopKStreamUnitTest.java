@@ -0,0 +1,82 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.stream.impl;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import net.sf.roggen.collections.iterable.Iterables;
+import net.sf.roggen.collections.stream.Stream;
+import net.sf.roggen.collections.stream.Streams;
+import net.sf.roggen.io.Codecs;
+import net.sf.roggen.lang.Compare;
+
+import org.junit.Test;
+
+/**
+ * Test for {@link Stream#topK(int, Comparator)}
+ *
+ * @author flbulgarelli
+ *
+ */
+public class TopKStreamUnitTest {
+
+  private static final Comparator<String> BY_LENGTH = new Comparator<String>() {
+    public int compare(String o1, String o2) {
+      return o1.length() - o2.length();
+    }
+  };
+
+  /** Test that topK is equivalent to a full stable sort followed by take */
+  @Test
+  public void testEquivalentToSortAndTake() throws Exception {
+    Random random = new Random(42);
+    List<Integer> elements = new ArrayList<Integer>();
+    for (int i = 0; i < 5000; i++)
+      elements.add(random.nextInt(1000));
+    for (int k : new int[] { 0, 1, 10, 4999, 5000, 6000 }) {
+      List<Integer> expected = Iterables.toSortedList(elements, Compare.<Integer> natural());
+      expected = expected.subList(0, Math.min(k, expected.size()));
+      assertEquals(expected, Streams.from(elements).topK(k, Compare.<Integer> natural()).toList());
+      assertEquals(expected, Streams.from(elements).sort().take(k).toList());
+    }
+  }
+
+  /** Test that memory is bounded by the size of the source, not by k */
+  @Test
+  public void testHugeK() throws Exception {
+    int huge = Integer.MAX_VALUE - 16;
+    assertEquals(Arrays.asList(1, 2, 3), Streams.cons(3, 1, 2).sort().take(huge).toList());
+    assertEquals(Arrays.asList(1, 2, 3), Streams.cons(3, 1, 2).topK(huge, Compare.<Integer> natural()).toList());
+    assertEquals(Arrays.asList(1, 2, 3),
+      Streams.cons(3, 1, 2).sortBy(Compare.<Integer> natural(), Codecs.integer(), 2).take(huge).toList());
+  }
+
+  /** Test that elements that are equal according to the comparator keep their order */
+  @Test
+  public void testStability() throws Exception {
+    Stream<String> words = Streams.cons("ccc", "a", "bb", "b", "dd", "c", "eee");
+    assertEquals(Arrays.asList("a", "b", "c", "bb"), words.topK(4, BY_LENGTH).toList());
+    assertEquals(Arrays.asList("a", "b"), words.sortBy(BY_LENGTH).take(2).toList());
+    assertEquals(Arrays.asList("a", "b"), words.topK(4, BY_LENGTH).take(2).toList());
+    assertEquals("a", words.topK(3, BY_LENGTH).head());
+  }
+
+}
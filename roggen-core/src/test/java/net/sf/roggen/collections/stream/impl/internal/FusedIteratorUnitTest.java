@@ -0,0 +1,93 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.stream.impl.internal;
+
+import static net.sf.roggen.lang.Compare.*;
+import static net.sf.roggen.numbers.NumberTypes.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+
+import net.sf.roggen.collections.internal.iterator.FusedIterator;
+import net.sf.roggen.collections.stream.Stream;
+import net.sf.roggen.collections.stream.Streams;
+import net.sf.roggen.defs.Thunk;
+import net.sf.roggen.iterators.thriter.Thriterator;
+import net.sf.roggen.lang.function.AbstractFunction;
+
+import org.junit.Test;
+
+/**
+ * Test for {@link FusedIterator}
+ *
+ * @author flbulgarelli
+ *
+ */
+public class FusedIteratorUnitTest {
+
+  /** Test that fused stages are evaluated in order */
+  @Test
+  public void testStagesOrder() throws Exception {
+    Stream<Integer> source = Streams.cons(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+    assertEquals(Arrays.asList(30, 40, 50), source.drop(2).map(integer().multiply().apply(10)).filter(greaterThan(25)).take(3).toList());
+    assertEquals(Arrays.asList(5, 6, 7), source.filter(greaterThan(2)).map(add(1)).takeWhile(lessThan(8)).drop(1).toList());
+    assertEquals(Arrays.asList(2, 3), source.map(add(1)).filter(lessThan(5)).take(2).toList());
+    assertEquals(Collections.emptyList(), source.take(3).drop(3).toList());
+    assertEquals(Arrays.asList(1, 2), source.takeWhile(lessThan(5)).take(2).toList());
+  }
+
+  /** Test that fused streams over strict sources are repeatable */
+  @Test
+  public void testRepeatable() throws Exception {
+    Stream<Integer> stream = Streams.cons(5, 6, 7, 8).filter(greaterThan(5)).map(add(1)).drop(1);
+    assertFalse(stream.isEmpty());
+    assertEquals(Arrays.asList(8, 9), stream.toList());
+    assertEquals((Integer) 17, stream.sum(integer()));
+    assertEquals((Integer) 9, stream.last());
+  }
+
+  /**
+   * Test that mappings are not applied to elements discarded before them, nor
+   * to elements that are never retrieved
+   */
+  @Test
+  public void testLaziness() throws Exception {
+    final int[] evaluations = new int[1];
+    AbstractFunction<Integer, Integer> counting = new AbstractFunction<Integer, Integer>() {
+      public Integer apply(Integer arg) {
+        evaluations[0]++;
+        return arg;
+      }
+    };
+    Streams.cons(1, 2, 3, 4, 5, 6).drop(4).map(counting).toList();
+    assertEquals(2, evaluations[0]);
+
+    evaluations[0] = 0;
+    assertEquals(5, Streams.cons(1, 2, 3, 4, 5, 6).map(counting).drop(1).filter(greaterThan(0)).size());
+    assertEquals(5, evaluations[0]);
+
+    evaluations[0] = 0;
+    Thriterator<Integer> iter = Streams.from(new LinkedHashSet<Integer>(Arrays.asList(1, 2, 3))).drop(1)
+      .map(counting).iterator();
+    iter.advanceNext();
+    Thunk<Integer> current = iter.delayedCurrent();
+    assertEquals(0, evaluations[0]);
+    assertEquals((Integer) 2, current.value());
+    assertEquals(1, evaluations[0]);
+  }
+
+}
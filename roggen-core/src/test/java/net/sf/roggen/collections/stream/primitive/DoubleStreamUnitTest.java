@@ -0,0 +1,53 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.stream.primitive;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import net.sf.roggen.collections.stream.Streams;
+import net.sf.roggen.defs.primitive.DoubleApplicable;
+
+import org.junit.Test;
+
+/**
+ * Test for {@link DoubleStream}
+ * 
+ * @author flbulgarelli
+ * 
+ */
+public class DoubleStreamUnitTest {
+
+  /** Test that minimum and maximum follow the natural ordering of Double */
+  @Test
+  public void testMinimumMaximum() throws Exception {
+    DoubleStream stream = DoubleStream.from(0.5, Double.NaN, -1.5);
+    assertEquals(Streams.cons(0.5, Double.NaN, -1.5).maximum(), stream.maximum(), 0);
+    assertEquals(Streams.cons(0.5, Double.NaN, -1.5).minimum(), stream.minimum(), 0);
+  }
+
+  /** Test for map and boxed */
+  @Test
+  public void testMap() throws Exception {
+    assertEquals(Arrays.asList(1.0, 0.5, 0.25), DoubleStream.from(1, 2, 4).map(new DoubleApplicable() {
+      public double apply(double arg) {
+        return 1 / arg;
+      }
+    }).boxed().toList());
+    assertEquals(7.0, DoubleStream.from(Arrays.asList(1, 2L, 4.0)).sum(), 0);
+  }
+
+}
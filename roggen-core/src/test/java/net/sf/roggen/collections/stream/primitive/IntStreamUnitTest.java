@@ -0,0 +1,110 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.collections.stream.primitive;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import net.sf.roggen.collections.EmptySourceException;
+import net.sf.roggen.collections.stream.Streams;
+import net.sf.roggen.defs.primitive.IntApplicable;
+import net.sf.roggen.defs.primitive.IntApplicable2;
+import net.sf.roggen.defs.primitive.IntEvaluable;
+import net.sf.roggen.defs.primitive.ToIntApplicable;
+import net.sf.roggen.reductions.Statistics;
+
+import org.junit.Test;
+
+/**
+ * Test for {@link IntStream}
+ * 
+ * @author flbulgarelli
+ * 
+ */
+public class IntStreamUnitTest {
+
+  private static final IntEvaluable EVEN = new IntEvaluable() {
+    public boolean eval(int argument) {
+      return argument % 2 == 0;
+    }
+  };
+
+  private static final IntApplicable SQUARE = new IntApplicable() {
+    public int apply(int arg) {
+      return arg * arg;
+    }
+  };
+
+  /** Test for map, filter and toArray */
+  @Test
+  public void testMapFilter() throws Exception {
+    assertArrayEquals(new int[] { 4, 16, 36 }, IntStream.enumerate(1, 6).filter(EVEN).map(SQUARE).toArray());
+    assertArrayEquals(new int[] { 10, 7, 4, 1 }, IntStream.enumerate(10, 0, -3).toArray());
+    assertEquals(0, IntStream.enumerate(5, 4).size());
+  }
+
+  /** Test for reductions */
+  @Test
+  public void testReductions() throws Exception {
+    IntStream stream = IntStream.from(5, 8, -3, 10, 2);
+    assertEquals(22, stream.sum());
+    assertEquals(-3, stream.minimum());
+    assertEquals(10, stream.maximum());
+    assertEquals(5, stream.size());
+    assertEquals(4.4, stream.average(), 0.0001);
+    Statistics statistics = stream.statistics();
+    assertEquals(5, statistics.count());
+    assertEquals(22, statistics.sum(), 0.0001);
+    assertEquals(-3, statistics.minimum(), 0.0001);
+    assertEquals(10, statistics.maximum(), 0.0001);
+    assertEquals(4.4, statistics.mean(), 0.0001);
+    assertEquals(21.04, statistics.variance(), 0.0001);
+    assertEquals(-2400, stream.fold(1, new IntApplicable2() {
+      public int apply(int arg0, int arg1) {
+        return arg0 * arg1;
+      }
+    }));
+    assertTrue(stream.any(EVEN));
+    assertFalse(stream.all(EVEN));
+    assertFalse(stream.isEmpty());
+    assertTrue(stream.filter(EVEN).map(SQUARE).filter(new IntEvaluable() {
+      public boolean eval(int argument) {
+        return argument > 1000;
+      }
+    }).isEmpty());
+  }
+
+  /** Test that reductions that need at least one element fail on empty streams */
+  @Test(expected = EmptySourceException.class)
+  public void testMaximumEmpty() throws Exception {
+    IntStream.from().maximum();
+  }
+
+  /** Test for conversions from and to {@link net.sf.roggen.collections.stream.Stream}s */
+  @Test
+  public void testConversions() throws Exception {
+    assertEquals(Arrays.asList(1, 4, 9), IntStream.enumerate(1, 3).map(SQUARE).boxed().toList());
+    assertEquals(15, IntStream.from(Streams.enumerate(1, 5)).sum());
+    assertEquals(9, Streams.cons("hello", "big", "w").mapToInt(new ToIntApplicable<String>() {
+      public int apply(String arg) {
+        return arg.length();
+      }
+    }).sum());
+    assertEquals(6000000000L, IntStream.from(2000000000, 2000000000, 2000000000).asLongStream().sum());
+    assertEquals(1.5, IntStream.from(1, 2).asDoubleStream().average(), 0.0001);
+  }
+
+}
@@ -0,0 +1,86 @@
+/**
+ *  Copyright (c) 2012, The Roggen Team
+ *  Copyright (c) 2010-2012, The StaccatoCommons Team
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation; version 3 of the License.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ */
+
+package net.sf.roggen.iterators;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import net.sf.roggen.collections.stream.Streams;
+import net.sf.roggen.iterators.thriter.SplittableThriterator;
+
+import org.junit.Test;
+
+/**
+ * Test for {@link IndexedThriterator#trySplit()}
+ * 
+ * @author flbulgarelli
+ * 
+ */
+public class IndexedThriteratorUnitTest {
+
+  /** Test that a split retrieves the first half of the remaining elements */
+  @Test
+  public void testSplit() throws Exception {
+    SplittableThriterator<Integer> iter = new ArrayThriterator<Integer>(new Integer[] { 1, 2, 3, 4, 5 });
+    assertEquals(5, iter.estimateSize());
+    assertTrue(iter.hasExactSize());
+    SplittableThriterator<Integer> prefix = iter.trySplit();
+    assertEquals(2, prefix.estimateSize());
+    assertEquals(3, iter.estimateSize());
+    assertEquals(Arrays.asList(1, 2), drain(prefix));
+    assertEquals(Arrays.asList(3, 4, 5), drain(iter));
+    assertNull(iter.trySplit());
+  }
+
+  /** Test that splits can be nested and that they do not lose elements */
+  @Test
+  public void testRecursiveSplit() throws Exception {
+    SplittableThriterator<Character> iter = new CharSequenceThriterator("abcdefgh");
+    iter.advanceNext();
+    assertEquals((Character) 'a', iter.current());
+    SplittableThriterator<Character> prefix = iter.trySplit();
+    SplittableThriterator<Character> prefixOfPrefix = prefix.trySplit();
+    assertEquals(Arrays.asList('b'), drain(prefixOfPrefix));
+    assertEquals(Arrays.asList('c', 'd'), drain(prefix));
+    assertEquals(Arrays.asList('e', 'f', 'g', 'h'), drain(iter));
+  }
+
+  /** Test for splitting list and enumerate streams iterators */
+  @Test
+  public void testStreamSources() throws Exception {
+    List<Integer> list = new ArrayList<Integer>(Streams.enumerate(10, 29).toList());
+    SplittableThriterator<Integer> iter = (SplittableThriterator<Integer>) Streams.from(list).iterator();
+    List<Integer> result = drain(iter.trySplit());
+    result.addAll(drain(iter));
+    assertEquals(list, result);
+
+    iter = (SplittableThriterator<Integer>) Streams.enumerate(10, 29).iterator();
+    assertEquals(20, iter.estimateSize());
+    result = drain(iter.trySplit());
+    result.addAll(drain(iter));
+    assertEquals(list, result);
+  }
+
+  private static <A> List<A> drain(SplittableThriterator<A> iter) {
+    List<A> result = new ArrayList<A>();
+    while (iter.hasNext())
+      result.add(iter.next());
+    return result;
+  }
+
+}
@@ -17,11 +17,23 @@ package net.sf.roggen.reductions;
 
 import static org.junit.Assert.*;
 
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import net.sf.roggen.defs.reduction.Accumulator;
+import net.sf.roggen.defs.reduction.MergeableAccumulator;
+import net.sf.roggen.defs.reduction.MergeableReduction;
 import net.sf.roggen.defs.reduction.Reduction;
+import net.sf.roggen.collections.stream.Streams;
 import net.sf.roggen.reductions.Reductions;
+import net.sf.roggen.lang.Compare;
+import net.sf.roggen.lang.function.Functions;
+import net.sf.roggen.lang.tuple.Pair;
+import net.sf.roggen.lang.tuple.Triple;
+import net.sf.roggen.numbers.NumberTypes;
 import net.sf.roggen.util.Strings;
 
 import org.junit.Test;
@@ -87,6 +99,183 @@ public class ReductionsUnitTest {
     assertEquals(10, reduceSomeIntegers(Reductions.<Integer> min()));
   }
 
+  /**
+   * Test that count, sum, append, max and min accumulators can be merged
+   */
+  @Test
+  public void merge() {
+    assertEquals(3, mergeSomeIntegers(Reductions.<Integer> count()));
+    assertEquals(113, mergeSomeIntegers(Reductions.sum()));
+    assertEquals(63, mergeSomeIntegers(Reductions.<Integer> max()));
+    assertEquals(10, mergeSomeIntegers(Reductions.<Integer> min()));
+    assertEquals(113, mergeSomeIntegers(Reductions.sum().then(Functions.<Integer> identity())));
+    assertEquals(40, mergeSomeIntegers(Reductions.<Integer> max().of(NumberTypes.add(-23))));
+    Reduction<Integer, Integer> foldSum = Reductions.from(0, NumberTypes.integer().add());
+    assertFalse(foldSum.then(Functions.<Integer> identity()) instanceof MergeableReduction);
+    assertFalse(Reductions.from(NumberTypes.integer().add()) instanceof MergeableReduction);
+
+    MergeableAccumulator<Object, List<Object>> accum = (MergeableAccumulator<Object, List<Object>>) Reductions
+      .append().newAccumulator();
+    MergeableAccumulator<Object, List<Object>> other = (MergeableAccumulator<Object, List<Object>>) Reductions
+      .append().newAccumulator();
+    accum.accumulate("foo");
+    other.accumulate("bar");
+    accum.merge(other);
+    assertEquals(Arrays.asList("foo", "bar"), accum.value());
+  }
+
+  /**
+   * Test method for {@link Reductions#all(Reduction...)} and its overloads
+   */
+  @Test
+  public void all() {
+    Reduction<Integer, Triple<Integer, Integer, Integer>> all = Reductions.all(Reductions.<Integer> count(),
+      Reductions.<Integer> max(), Reductions.<Integer> min());
+    Accumulator<Integer, Triple<Integer, Integer, Integer>> accum = all.newAccumulator();
+    accum.accumulate(40);
+    accum.accumulate(63);
+    accum.accumulate(10);
+    assertEquals(new Triple<Integer, Integer, Integer>(3, 63, 10), accum.value());
+    assertTrue(all instanceof MergeableReduction);
+
+    assertEquals(Arrays.<Object> asList(3, 113, 63, 10, Arrays.asList(40, 63, 10)), Streams.cons(40, 63, 10).reduce(
+      Reductions.all(Reductions.<Integer> count(), Reductions.sum(), Reductions.<Integer> max(),
+        Reductions.<Integer> min(), Reductions.<Integer> append())));
+    assertFalse(Reductions.all(Reductions.<Integer> count(), Reductions.from(0, NumberTypes.integer().add())) instanceof MergeableReduction);
+  }
+
+  /**
+   * Test that {@link Reductions#all(Reduction, Reduction)} accumulators merge
+   * each of their parts
+   */
+  @Test
+  public void mergeAll() {
+    Reduction<Integer, Pair<Integer, Integer>> all = Reductions.all(Reductions.<Integer> count(), Reductions.sum());
+    MergeableAccumulator<Integer, Pair<Integer, Integer>> accum = (MergeableAccumulator<Integer, Pair<Integer, Integer>>) all
+      .newAccumulator();
+    MergeableAccumulator<Integer, Pair<Integer, Integer>> other = (MergeableAccumulator<Integer, Pair<Integer, Integer>>) all
+      .newAccumulator();
+    accum.accumulate(40);
+    other.accumulate(63);
+    other.accumulate(10);
+    accum.merge(other);
+    assertEquals(new Pair<Integer, Integer>(3, 113), accum.value());
+  }
+
+  /**
+   * Test method for {@link Reductions#distinctCount(int)}
+   */
+  @Test
+  public void distinctCount() {
+    MergeableReduction<Integer, Long> reduction = Reductions.distinctCount(12);
+    MergeableAccumulator<Integer, Long> accum = reduction.newAccumulator();
+    MergeableAccumulator<Integer, Long> other = reduction.newAccumulator();
+    for (int i = 0; i < 100000; i++) {
+      accum.accumulate(i % 30000);
+      other.accumulate(20000 + i % 30000);
+    }
+    assertEquals(30000, accum.value(), 30000 * 0.05);
+    accum.merge(other);
+    assertEquals(50000, accum.value(), 50000 * 0.05);
+    assertEquals(3L, (long) Streams.cons(4, 5, 4, 6).reduce(Reductions.<Integer> distinctCount(10)));
+  }
+
+  /**
+   * Test method for {@link Reductions#quantiles(java.util.Comparator, int, long)}
+   */
+  @Test
+  public void quantiles() {
+    MergeableReduction<Integer, Quantiles<Integer>> reduction = Reductions.quantiles(Compare.<Integer> natural(),
+      200, 42);
+    MergeableAccumulator<Integer, Quantiles<Integer>> accum = reduction.newAccumulator();
+    MergeableAccumulator<Integer, Quantiles<Integer>> other = reduction.newAccumulator();
+    for (int i = 0; i < 50000; i++) {
+      accum.accumulate(i);
+      other.accumulate(50000 + i);
+    }
+    assertEquals(25000, accum.value().quantile(0.5), 50000 * 0.02);
+    accum.merge(other);
+    Quantiles<Integer> quantiles = accum.value();
+    assertEquals(100000, quantiles.size());
+    assertEquals(50000, quantiles.quantile(0.5), 100000 * 0.02);
+    assertEquals(90000, quantiles.quantile(0.9), 100000 * 0.02);
+    assertEquals((Integer) 3, Streams.cons(5, 1, 3, 2, 4).reduce(Reductions.<Integer> quantiles()).quantile(0.5));
+  }
+
+  /**
+   * Test method for {@link Reductions#heavyHitters(int)}
+   */
+  @Test
+  public void heavyHitters() {
+    MergeableReduction<Integer, Map<Integer, Long>> reduction = Reductions.heavyHitters(10);
+    MergeableAccumulator<Integer, Map<Integer, Long>> accum = reduction.newAccumulator();
+    MergeableAccumulator<Integer, Map<Integer, Long>> other = reduction.newAccumulator();
+    for (int i = 0; i < 10000; i++) {
+      accum.accumulate(i % 3 == 0 ? -1 : i);
+      other.accumulate(i % 5 == 0 ? -2 : i);
+    }
+    assertEquals(Arrays.asList(-1), new ArrayList<Integer>(accum.value().keySet()).subList(0, 1));
+    accum.merge(other);
+    Map<Integer, Long> value = accum.value();
+    assertTrue(value.size() <= 10);
+    assertEquals(Arrays.asList(-1, -2), new ArrayList<Integer>(value.keySet()).subList(0, 2));
+    assertTrue(value.get(-1) >= 3334);
+  }
+
+  /**
+   * Test method for {@link Reductions#sum(net.sf.roggen.defs.type.NumberType)}
+   */
+  @Test
+  public void sumOfNumberType() {
+    assertEquals(113, reduceSomeIntegers(Reductions.sum(NumberTypes.integer())));
+    assertEquals(113, mergeSomeIntegers(Reductions.sum(NumberTypes.integer())));
+    assertEquals((Long) 6000000000L, Streams.cons(2000000000L, 4000000000L).reduce(Reductions.sum(NumberTypes.long_())));
+    assertEquals(4.0, Streams.cons(1.5, 2.5).reduce(Reductions.sum(NumberTypes.double_())), 0.0001);
+    assertEquals(new BigInteger("3"),
+      Streams.cons(BigInteger.ONE, new BigInteger("2")).reduce(Reductions.sum(NumberTypes.bigInteger())));
+  }
+
+  /**
+   * Test method for {@link Reductions#statistics()}
+   */
+  @Test
+  public void statistics() {
+    MergeableAccumulator<Number, Statistics> accum = Reductions.statistics().newAccumulator();
+    MergeableAccumulator<Number, Statistics> other = Reductions.statistics().newAccumulator();
+    MergeableAccumulator<Number, Statistics> empty = Reductions.statistics().newAccumulator();
+    assertTrue(Double.isNaN(empty.value().mean()));
+    accum.accumulate(5);
+    accum.accumulate(8L);
+    other.accumulate(-3.0);
+    other.accumulate(10);
+    other.accumulate(2);
+    accum.merge(empty);
+    accum.merge(other);
+    Statistics statistics = accum.value();
+    assertEquals(5, statistics.count());
+    assertEquals(22, statistics.sum(), 0.0001);
+    assertEquals(-3, statistics.minimum(), 0.0001);
+    assertEquals(10, statistics.maximum(), 0.0001);
+    assertEquals(4.4, statistics.mean(), 0.0001);
+    assertEquals(21.04, statistics.variance(), 0.0001);
+    assertEquals(26.3, statistics.sampleVariance(), 0.0001);
+  }
+
+  protected int mergeSomeIntegers(Reduction<Integer, Integer> reduction) {
+    MergeableAccumulator<Integer, Integer> accum = (MergeableAccumulator<Integer, Integer>) reduction
+      .newAccumulator();
+    MergeableAccumulator<Integer, Integer> empty = (MergeableAccumulator<Integer, Integer>) reduction
+      .newAccumulator();
+    MergeableAccumulator<Integer, Integer> other = (MergeableAccumulator<Integer, Integer>) reduction
+      .newAccumulator();
+    accum.accumulate(40);
+    other.accumulate(63);
+    other.accumulate(10);
+    accum.merge(empty);
+    accum.merge(other);
+    return accum.value();
+  }
+
   protected int reduceSomeIntegers(Reduction<Integer, Integer> reduction) {
     Accumulator<Integer, Integer> accum = reduction.newAccumulator();
     accum.accumulate(40);